@@ -0,0 +1,139 @@
+package com.melloware.petstore.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.melloware.petstore.common.models.enums.CaseInsensitiveEnumDeserializer;
+import com.melloware.petstore.common.models.enums.EnumNameSerializer;
+import com.melloware.petstore.common.models.enums.OrderFailureReason;
+import com.melloware.petstore.common.models.enums.OrderStatus;
+import com.melloware.petstore.common.models.enums.PaymentType;
+
+/**
+ * Cost per field of the {@link CaseInsensitiveEnumDeserializer} and
+ * {@link EnumNameSerializer} of every petstore enum, against the previous
+ * upper-case and {@code Enum.valueOf} deserialization and the plain
+ * {@code name()} serialization. Each invocation handles an array of
+ * {@value #FIELDS} values in mixed case.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnumJsonBenchmark {
+
+    private static final int FIELDS = 100;
+
+    private static final Map<String, Class<? extends Enum<?>>> TYPES = Map.of(
+            "OrderStatus", OrderStatus.class,
+            "PaymentType", PaymentType.class,
+            "OrderFailureReason", OrderFailureReason.class);
+
+    @Param({ "OrderStatus", "PaymentType", "OrderFailureReason" })
+    public String type;
+
+    private final JsonFactory factory = new JsonFactory();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private Class<?> enumClass;
+    private Enum<?>[] values;
+    private byte[] json;
+    private JsonDeserializer<?> deserializer;
+    private JsonSerializer<Object> serializer;
+
+    @Setup
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void setup() throws IOException {
+        enumClass = TYPES.get(type);
+        Enum<?>[] constants = (Enum<?>[]) enumClass.getEnumConstants();
+        values = new Enum<?>[FIELDS];
+        StringBuilder array = new StringBuilder("[");
+        for (int i = 0; i < FIELDS; i++) {
+            values[i] = constants[i % constants.length];
+            String name = values[i].name();
+            array.append(i == 0 ? "" : ",").append('"')
+                    .append(i % 2 == 0 ? name : name.charAt(0) + name.substring(1).toLowerCase())
+                    .append('"');
+        }
+        json = array.append(']').toString().getBytes();
+        deserializer = new CaseInsensitiveEnumDeserializer(enumClass) {
+        };
+        serializer = new EnumNameSerializer(enumClass) {
+        };
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIELDS)
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void legacyDeserialize(Blackhole blackhole) throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            parser.nextToken();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                // Former CaseInsensitiveEnumDeserializer.deserialize
+                blackhole.consume(Enum.valueOf((Class) enumClass, parser.getText().toUpperCase()));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIELDS)
+    public void deserialize(Blackhole blackhole) throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            parser.nextToken();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                blackhole.consume(deserializer.deserialize(parser, null));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIELDS)
+    public int legacySerialize() throws IOException {
+        out.reset();
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            generator.writeStartArray();
+            for (Enum<?> value : values) {
+                generator.writeString(value.name());
+            }
+            generator.writeEndArray();
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIELDS)
+    public int serialize() throws IOException {
+        out.reset();
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            generator.writeStartArray();
+            for (Enum<?> value : values) {
+                serializer.serialize(value, generator, null);
+            }
+            generator.writeEndArray();
+        }
+        return out.size();
+    }
+}
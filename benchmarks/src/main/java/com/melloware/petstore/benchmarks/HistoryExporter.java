@@ -0,0 +1,161 @@
+package com.melloware.petstore.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+
+import com.melloware.petstore.common.converter.DataConverterProducer;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderContext;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderLocalActivitiesImpl;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderWorkflow;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderWorkflowImpl;
+
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.client.WorkflowException;
+import io.temporal.client.WorkflowExecutionMetadata;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.serviceclient.WorkflowServiceStubs;
+import io.temporal.serviceclient.WorkflowServiceStubsOptions;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+
+/**
+ * Writes purchase order workflow histories as JSON files, to be replayed by
+ * {@link ReplayReport}.
+ * <p>
+ * {@code generate} runs the real workflow against {@link StubActivities} in an
+ * in-memory Temporal test server, once per {@link OrderScenario} and
+ * {@link WorkflowSetup}, so the corpus covers the completed order and every
+ * compensation path. {@code export} downloads the closed executions of a
+ * Temporal server matching a visibility query, such as production histories.
+ * <p>
+ * Usage:
+ * <ul>
+ * <li>{@code java -cp benchmarks.jar com.melloware.petstore.benchmarks.HistoryExporter generate <directory> [lineItems]}</li>
+ * <li>{@code java -cp benchmarks.jar com.melloware.petstore.benchmarks.HistoryExporter export <directory> <target> [namespace] [query] [limit]}</li>
+ * </ul>
+ */
+public class HistoryExporter {
+
+    private static final String WORKFLOW_TASK_QUEUE = "purchase-order-tasks";
+    private static final List<String> ACTIVITY_TASK_QUEUES = List.of("order-tasks", "notification-tasks",
+            "payment-tasks", "warehouse-tasks", "shipment-tasks");
+
+    private static final List<WorkflowSetup> SETUPS = List.of(WorkflowSetup.REMOTE, WorkflowSetup.LOCAL_SLIM);
+
+    private static final String DEFAULT_QUERY = "WorkflowType='placeOrder' AND ExecutionStatus!='Running'";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !List.of("generate", "export").contains(args[0])
+                || ("export".equals(args[0]) && args.length < 3)) {
+            System.err.println("Usage: HistoryExporter generate <directory> [lineItems]");
+            System.err.println("       HistoryExporter export <directory> <target> [namespace] [query] [limit]");
+            System.exit(2);
+        }
+        Path directory = Files.createDirectories(Path.of(args[1]));
+        if ("generate".equals(args[0])) {
+            generate(directory, args.length > 2 ? Integer.parseInt(args[2]) : 5);
+        } else {
+            export(directory, args[2], args.length > 3 ? args[3] : "default",
+                    args.length > 4 ? args[4] : DEFAULT_QUERY,
+                    args.length > 5 ? Integer.parseInt(args[5]) : 100);
+        }
+    }
+
+    /**
+     * Runs one order per scenario and setup and writes its history.
+     */
+    private static void generate(Path directory, int lineItems) throws IOException {
+        Validator validator = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory()
+                .getValidator();
+        PurchaseOrderContext ctx = ModelFixtures.purchaseOrderContext(lineItems);
+
+        for (WorkflowSetup setup : SETUPS) {
+            setup.apply();
+            for (OrderScenario scenario : OrderScenario.values()) {
+                try (TestWorkflowEnvironment env = TestWorkflowEnvironment.newInstance(newEnvironmentOptions())) {
+                    Worker workflowWorker = env.newWorker(WORKFLOW_TASK_QUEUE);
+                    workflowWorker.registerWorkflowImplementationTypes(PurchaseOrderWorkflowImpl.class);
+                    workflowWorker.registerActivitiesImplementations(new PurchaseOrderLocalActivitiesImpl(validator));
+                    StubActivities activities = new StubActivities(scenario);
+                    ACTIVITY_TASK_QUEUES
+                            .forEach(queue -> env.newWorker(queue).registerActivitiesImplementations(activities));
+                    env.start();
+
+                    String name = scenario.fileName() + "-" + setup.fileName();
+                    WorkflowClient client = env.getWorkflowClient();
+                    PurchaseOrderWorkflow workflow = client.newWorkflowStub(PurchaseOrderWorkflow.class,
+                            WorkflowOptions.newBuilder()
+                                    .setTaskQueue(WORKFLOW_TASK_QUEUE)
+                                    .setWorkflowId(name)
+                                    .build());
+                    try {
+                        workflow.placeOrder(ctx);
+                    } catch (WorkflowException e) {
+                        // Expected for every scenario but the completed order
+                    }
+                    write(directory, name, client.fetchHistory(name));
+                }
+            }
+        }
+    }
+
+    /**
+     * Downloads the histories of the executions matching the query.
+     */
+    private static void export(Path directory, String target, String namespace, String query, int limit)
+            throws IOException {
+        WorkflowServiceStubs service = WorkflowServiceStubs.newServiceStubs(WorkflowServiceStubsOptions.newBuilder()
+                .setTarget(target)
+                .build());
+        try {
+            WorkflowClient client = WorkflowClient.newInstance(service, WorkflowClientOptions.newBuilder()
+                    .setNamespace(namespace)
+                    .build());
+            List<WorkflowExecution> executions = client.listExecutions(query)
+                    .limit(limit)
+                    .map(WorkflowExecutionMetadata::getExecution)
+                    .toList();
+            for (WorkflowExecution execution : executions) {
+                write(directory, execution.getWorkflowId() + "-" + execution.getRunId(),
+                        client.fetchHistory(execution.getWorkflowId(), execution.getRunId()));
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static void write(Path directory, String name, WorkflowExecutionHistory history) throws IOException {
+        Path file = directory.resolve(name + ".json");
+        Files.writeString(file, history.toJson(true));
+        System.out.printf("%-60s %6d events%n", file, history.getEvents().size());
+    }
+
+    /**
+     * Returns the test environment options with the petstore converter, able to
+     * decode every payload encoding.
+     *
+     * @return the test environment options
+     */
+    static TestEnvironmentOptions newEnvironmentOptions() {
+        DataConverter converter = DataConverterProducer.newDataConverter(false, false, Integer.MAX_VALUE);
+        return TestEnvironmentOptions.newBuilder()
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                        .setDataConverter(converter)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.melloware.petstore.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.melloware.petstore.common.utils.IdGenerator;
+
+/**
+ * Compares {@link IdGenerator} against the {@link UUID#randomUUID()} based code
+ * paths it replaced. Runs on several threads because {@link UUID#randomUUID()}
+ * draws from a shared {@code SecureRandom}, whose contention is part of the
+ * cost, while {@link IdGenerator} uses a generator per thread.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class IdGeneratorBenchmark {
+
+    @Benchmark
+    public String legacyRequestId() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String requestId() {
+        return IdGenerator.newRequestId();
+    }
+
+    @Benchmark
+    public UUID timeOrderedUuid() {
+        return IdGenerator.newTimeOrderedUuid();
+    }
+
+    @Benchmark
+    public String legacyOrderNumber() {
+        // Former OrderService.generateOrderNumber
+        String uuidString = UUID.randomUUID().toString().replace("-", "");
+        String first16HexDigits = uuidString.substring(0, 16);
+        return String.format("PET-ORD-%s-%s-%s",
+                first16HexDigits.substring(0, 8),
+                first16HexDigits.substring(8, 12),
+                first16HexDigits.substring(12, 16));
+    }
+
+    @Benchmark
+    public String orderNumber() {
+        return IdGenerator.newOrderNumber();
+    }
+
+    @Benchmark
+    public UUID legacyAuthorizationCode() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID authorizationCode() {
+        return IdGenerator.newAuthorizationCode();
+    }
+}
@@ -0,0 +1,78 @@
+package com.melloware.petstore.benchmarks;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import com.melloware.petstore.common.context.MDCContextPropagator;
+
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.context.ContextPropagator;
+
+/**
+ * Context propagation cost of one activity call: the caller reads and
+ * serializes its MDC into the header, the worker deserializes the header and
+ * sets its MDC. Compares {@link MDCContextPropagator} against the previous
+ * {@link LegacyMDCContextPropagator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MDCContextPropagatorBenchmark {
+
+    @Param({ "legacy", "current" })
+    public String propagator;
+
+    private ContextPropagator contextPropagator;
+    private Map<String, Payload> header;
+
+    @Setup
+    public void setup() {
+        contextPropagator = "legacy".equals(propagator) ? new LegacyMDCContextPropagator()
+                : new MDCContextPropagator();
+        MDC.clear();
+        MDC.put("X-Request-ID", UUID.randomUUID().toString());
+        MDC.put("X-Request-IP", "192.168.1.10");
+        MDC.put("X-Request-User", "petstore-user");
+        MDC.put("X-Request-Hostname", "purchase-order-gateway");
+        MDC.put("traceId", "4bf92f3577b34da6a736ce7a3b2cbc5a");
+        MDC.put("spanId", "00f067aa0ba902b7");
+        header = contextPropagator.serializeContext(contextPropagator.getCurrentContext());
+    }
+
+    @Benchmark
+    public Map<String, Payload> serialize() {
+        return contextPropagator.serializeContext(contextPropagator.getCurrentContext());
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        Object context = contextPropagator.deserializeContext(header);
+        contextPropagator.setCurrentContext(context);
+        return context;
+    }
+
+    @Benchmark
+    public Object activityCall() {
+        Object context = contextPropagator.deserializeContext(
+                contextPropagator.serializeContext(contextPropagator.getCurrentContext()));
+        contextPropagator.setCurrentContext(context);
+        return context;
+    }
+}
@@ -0,0 +1,205 @@
+package com.melloware.petstore.benchmarks;
+
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import com.melloware.petstore.common.models.enums.OrderFailureReason;
+import com.melloware.petstore.common.models.enums.OrderStatus;
+import com.melloware.petstore.common.models.enums.PaymentType;
+import com.melloware.petstore.common.models.json.AuthorizePaymentResponse;
+import com.melloware.petstore.common.models.json.CapturePaymentRequest;
+import com.melloware.petstore.common.models.json.CheckInventoryRequest;
+import com.melloware.petstore.common.models.json.CreateOrderRequest;
+import com.melloware.petstore.common.models.json.CreateOrderResponse;
+import com.melloware.petstore.common.models.json.CreateTrackingNumberRequest;
+import com.melloware.petstore.common.models.json.CreditCardInfo;
+import com.melloware.petstore.common.models.json.DebitCreditCardRequest;
+import com.melloware.petstore.common.models.json.DebitCreditCardResponse;
+import com.melloware.petstore.common.models.json.MarkOrderCompleteRequest;
+import com.melloware.petstore.common.models.json.MarkOrderFailedRequest;
+import com.melloware.petstore.common.models.json.OrderErrorEmailNotificationRequest;
+import com.melloware.petstore.common.models.json.OrderPurchaseRequest;
+import com.melloware.petstore.common.models.json.OrderReceivedEmailNotificationRequest;
+import com.melloware.petstore.common.models.json.OrderSuccessEmailNotificationRequest;
+import com.melloware.petstore.common.models.json.Product;
+import com.melloware.petstore.common.models.json.ReverseActionsForTransactionRequest;
+import com.melloware.petstore.common.models.json.VoidPaymentRequest;
+import com.melloware.petstore.common.models.json.WorkflowInitiationResponse;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderContext;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Sample instances of every model in
+ * {@code com.melloware.petstore.common.models.json}, as they would be sent for a
+ * single order with the given number of line items.
+ */
+@UtilityClass
+public class ModelFixtures {
+
+    private static final UUID TRANSACTION_ID = UUID.fromString("01928c5e-7a4b-7c3d-9e8f-123456789abc");
+    private static final ZonedDateTime ORDER_DATE = ZonedDateTime.parse("2024-10-15T10:15:30-04:00[America/New_York]");
+    private static final String ORDER_NUMBER = "PET-ORD-01928c5e-7a4b-1f2e-3d4c";
+    private static final String EMAIL = "customer@petstore.com";
+    private static final String USER = "anonymous";
+    private static final String HOST = "purchase-order-gateway-7d9f8b6c5-x2k4p";
+
+    /**
+     * Creates a list of line items.
+     *
+     * @param lineItems number of line items
+     * @return the products
+     */
+    public static List<Product> products(int lineItems) {
+        return IntStream.range(0, lineItems)
+                .mapToObj(i -> Product.builder()
+                        .sku("PET-SKU-%05d".formatted(i))
+                        .quantity(1 + i % 5)
+                        .price(9.99 + i % 100)
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Creates one instance of every model, keyed by simple class name.
+     *
+     * @param lineItems number of line items of the order
+     * @return the models in a stable order
+     */
+    public static Map<String, Object> models(int lineItems) {
+        List<Product> products = products(lineItems);
+        double orderTotal = products.stream().mapToDouble(p -> p.getPrice() * p.getQuantity()).sum();
+        CreditCardInfo creditCard = CreditCardInfo.builder()
+                .cardNumber("4111111111111111")
+                .cardHolderName("Jane Doe")
+                .expiryDate("12/29")
+                .cvv("123")
+                .type(PaymentType.VISA)
+                .build();
+
+        Map<String, Object> models = new LinkedHashMap<>();
+        models.put("OrderPurchaseRequest", OrderPurchaseRequest.builder()
+                .creditCard(creditCard)
+                .customerEmail(EMAIL)
+                .products(products)
+                .build());
+        models.put("WorkflowInitiationResponse", WorkflowInitiationResponse.builder()
+                .transactionId(TRANSACTION_ID)
+                .build());
+        models.put("CreateOrderRequest", CreateOrderRequest.builder()
+                .requestedByUser(USER)
+                .requestedByHost(HOST)
+                .customerEmail(EMAIL)
+                .orderDate(ORDER_DATE)
+                .transactionId(TRANSACTION_ID)
+                .products(products)
+                .build());
+        models.put("CreateOrderResponse", CreateOrderResponse.builder()
+                .customerEmail(EMAIL)
+                .orderDate(ORDER_DATE)
+                .transactionId(TRANSACTION_ID)
+                .orderNumber(ORDER_NUMBER)
+                .status(OrderStatus.PENDING)
+                .build());
+        models.put("OrderReceivedEmailNotificationRequest", OrderReceivedEmailNotificationRequest.builder()
+                .transactionNumber(TRANSACTION_ID)
+                .customerEmail(EMAIL)
+                .orderDate(ORDER_DATE)
+                .products(products)
+                .orderTotal(orderTotal)
+                .build());
+        models.put("DebitCreditCardRequest", DebitCreditCardRequest.builder()
+                .requestedByUser(USER)
+                .requestedByHost(HOST)
+                .transactionId(TRANSACTION_ID)
+                .creditCard(creditCard)
+                .amount(orderTotal)
+                .customerEmail(EMAIL)
+                .build());
+        models.put("DebitCreditCardResponse", DebitCreditCardResponse.builder()
+                .authorizationCode(TRANSACTION_ID)
+                .chargedAmount(orderTotal)
+                .cardInfo(creditCard)
+                .build());
+        models.put("AuthorizePaymentResponse", AuthorizePaymentResponse.builder()
+                .authorizationCode(TRANSACTION_ID)
+                .authorizedAmount(orderTotal)
+                .build());
+        models.put("CapturePaymentRequest", CapturePaymentRequest.builder()
+                .requestedByUser(USER)
+                .requestedByHost(HOST)
+                .transactionId(TRANSACTION_ID)
+                .authorizationCode(TRANSACTION_ID)
+                .amount(orderTotal)
+                .build());
+        models.put("VoidPaymentRequest", VoidPaymentRequest.builder()
+                .requestedByUser(USER)
+                .requestedByHost(HOST)
+                .transactionId(TRANSACTION_ID)
+                .authorizationCode(TRANSACTION_ID)
+                .build());
+        models.put("CheckInventoryRequest", CheckInventoryRequest.builder()
+                .products(products)
+                .build());
+        models.put("CreateTrackingNumberRequest", CreateTrackingNumberRequest.builder()
+                .products(products)
+                .build());
+        models.put("MarkOrderCompleteRequest", MarkOrderCompleteRequest.builder()
+                .customerEmail(EMAIL)
+                .orderDate(ORDER_DATE)
+                .transactionId(TRANSACTION_ID)
+                .orderNumber(ORDER_NUMBER)
+                .products(products)
+                .orderTotal(orderTotal)
+                .build());
+        models.put("OrderSuccessEmailNotificationRequest", OrderSuccessEmailNotificationRequest.builder()
+                .transactionNumber(TRANSACTION_ID)
+                .customerEmail(EMAIL)
+                .orderNumber(ORDER_NUMBER)
+                .orderDate(ORDER_DATE)
+                .trackingNumber(TRANSACTION_ID.toString())
+                .products(products)
+                .orderTotal(orderTotal)
+                .build());
+        models.put("ReverseActionsForTransactionRequest", ReverseActionsForTransactionRequest.builder()
+                .requestedByUser(USER)
+                .requestedByHost(HOST)
+                .transactionId(TRANSACTION_ID)
+                .build());
+        models.put("MarkOrderFailedRequest", MarkOrderFailedRequest.builder()
+                .transactionId(TRANSACTION_ID)
+                .orderNumber(ORDER_NUMBER)
+                .reason(OrderFailureReason.OUT_OF_STOCK_ITEMS)
+                .build());
+        models.put("OrderErrorEmailNotificationRequest", OrderErrorEmailNotificationRequest.builder()
+                .customerEmail(EMAIL)
+                .orderNumber(ORDER_NUMBER)
+                .transactionNumber(TRANSACTION_ID)
+                .orderDate(ORDER_DATE)
+                .build());
+        return models;
+    }
+
+    /**
+     * Creates the workflow input of an order as started by the gateway.
+     *
+     * @param lineItems number of line items of the order
+     * @return the context
+     */
+    public static PurchaseOrderContext purchaseOrderContext(int lineItems) {
+        OrderPurchaseRequest request = (OrderPurchaseRequest) models(lineItems).get("OrderPurchaseRequest");
+        return PurchaseOrderContext.builder()
+                .transactionId(TRANSACTION_ID)
+                .customerEmail(request.getCustomerEmail())
+                .creditCard(request.getCreditCard())
+                .products(request.getProducts())
+                .requestDate(ORDER_DATE)
+                .requestedByHost(HOST)
+                .requestedByUser(USER)
+                .build();
+    }
+}
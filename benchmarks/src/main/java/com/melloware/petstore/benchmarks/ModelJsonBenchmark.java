@@ -0,0 +1,73 @@
+package com.melloware.petstore.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.melloware.petstore.common.converter.DataConverterProducer;
+
+/**
+ * Jackson round-trip of every model in
+ * {@code com.melloware.petstore.common.models.json} with the JSON mapper of the
+ * payload converter, without the Temporal payload wrapping measured by
+ * {@link PayloadConverterBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelJsonBenchmark {
+
+    @Param({ "OrderPurchaseRequest", "WorkflowInitiationResponse", "CreateOrderRequest", "CreateOrderResponse",
+            "OrderReceivedEmailNotificationRequest", "DebitCreditCardRequest", "DebitCreditCardResponse",
+            "AuthorizePaymentResponse", "CapturePaymentRequest", "VoidPaymentRequest", "CheckInventoryRequest",
+            "CreateTrackingNumberRequest", "MarkOrderCompleteRequest", "OrderSuccessEmailNotificationRequest",
+            "ReverseActionsForTransactionRequest", "MarkOrderFailedRequest", "OrderErrorEmailNotificationRequest" })
+    public String model;
+
+    @Param({ "5" })
+    public int lineItems;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Object value;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        value = ModelFixtures.models(lineItems).get(model);
+        writer = DataConverterProducer.newJsonObjectMapper().writerFor(value.getClass());
+        reader = DataConverterProducer.newJsonObjectMapper().readerFor(value.getClass());
+        json = writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object read() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public Object roundTrip() throws IOException {
+        return reader.readValue(writer.writeValueAsBytes(value));
+    }
+}
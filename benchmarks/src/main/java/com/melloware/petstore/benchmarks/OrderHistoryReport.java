@@ -0,0 +1,95 @@
+package com.melloware.petstore.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+
+import com.melloware.petstore.common.utils.IdGenerator;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderContext;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderLocalActivitiesImpl;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderWorkflow;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderWorkflowImpl;
+
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+
+/**
+ * Runs purchase orders through the real workflow against
+ * {@link StubActivities} in an in-memory Temporal test server, and prints the
+ * history events, history size and latency per order for each set of local
+ * activity steps, with and without slim activity requests.
+ * <p>
+ * The activities answer immediately, so the latency is the orchestration cost
+ * of the workflow: task queue round trips and history writes.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar com.melloware.petstore.benchmarks.OrderHistoryReport [orders] [lineItems]}
+ */
+public class OrderHistoryReport {
+
+    private static final String WORKFLOW_TASK_QUEUE = "purchase-order-tasks";
+    private static final List<String> ACTIVITY_TASK_QUEUES = List.of("order-tasks", "notification-tasks",
+            "payment-tasks", "warehouse-tasks", "shipment-tasks");
+
+    // Values of petstore.activity.local-steps and petstore.activity.slim-payloads compared
+    private static final List<WorkflowSetup> SETUPS = List.of(WorkflowSetup.REMOTE, WorkflowSetup.LOCAL,
+            WorkflowSetup.REMOTE_SLIM, WorkflowSetup.LOCAL_SLIM);
+
+    public static void main(String[] args) {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int lineItems = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Validator validator = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory()
+                .getValidator();
+        PurchaseOrderContext ctx = ModelFixtures.purchaseOrderContext(lineItems);
+
+        System.out.printf("%d orders of %d line items%n", orders, lineItems);
+        System.out.printf("%-40s %6s %14s %14s %14s %14s%n", "local steps", "slim", "events/order",
+                "bytes/order", "avg ms", "p99 ms");
+        for (WorkflowSetup setup : SETUPS) {
+            setup.apply();
+
+            try (TestWorkflowEnvironment env = TestWorkflowEnvironment.newInstance()) {
+                Worker workflowWorker = env.newWorker(WORKFLOW_TASK_QUEUE);
+                workflowWorker.registerWorkflowImplementationTypes(PurchaseOrderWorkflowImpl.class);
+                workflowWorker.registerActivitiesImplementations(new PurchaseOrderLocalActivitiesImpl(validator));
+                StubActivities activities = new StubActivities();
+                ACTIVITY_TASK_QUEUES.forEach(queue -> env.newWorker(queue).registerActivitiesImplementations(activities));
+                env.start();
+
+                WorkflowClient client = env.getWorkflowClient();
+                long events = 0;
+                long bytes = 0;
+                long[] latencies = new long[orders];
+                for (int i = 0; i < orders; i++) {
+                    String workflowId = "history-report-" + IdGenerator.newRequestId();
+                    PurchaseOrderWorkflow workflow = client.newWorkflowStub(PurchaseOrderWorkflow.class,
+                            WorkflowOptions.newBuilder()
+                                    .setTaskQueue(WORKFLOW_TASK_QUEUE)
+                                    .setWorkflowId(workflowId)
+                                    .build());
+                    long start = System.nanoTime();
+                    workflow.placeOrder(ctx);
+                    latencies[i] = System.nanoTime() - start;
+                    WorkflowExecutionHistory history = client.fetchHistory(workflowId);
+                    events += history.getEvents().size();
+                    bytes += history.getHistory().getSerializedSize();
+                }
+
+                Arrays.sort(latencies);
+                System.out.printf("%-40s %6s %14.1f %14d %14.2f %14.2f%n", setup.localSteps(),
+                        setup.slimPayloads(), (double) events / orders, bytes / orders,
+                        Arrays.stream(latencies).average().orElse(0) / 1e6,
+                        latencies[Math.min(orders - 1, (int) Math.ceil(orders * 0.99) - 1)] / 1e6);
+            }
+        }
+    }
+}
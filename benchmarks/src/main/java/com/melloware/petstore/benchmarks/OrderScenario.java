@@ -0,0 +1,43 @@
+package com.melloware.petstore.benchmarks;
+
+/**
+ * Outcomes of a purchase order played by {@link StubActivities}, covering the
+ * success path and each compensation path of the workflow.
+ */
+public enum OrderScenario {
+
+    /**
+     * Every step succeeds
+     */
+    COMPLETED,
+
+    /**
+     * The card is declined, the reserved inventory is released
+     */
+    PAYMENT_DECLINED,
+
+    /**
+     * The card details are invalid, the reserved inventory is released
+     */
+    INVALID_PAYMENT,
+
+    /**
+     * The products are out of stock, the authorization is voided
+     */
+    OUT_OF_STOCK,
+
+    /**
+     * The order cannot be marked complete after the payment is captured, the
+     * payment is refunded and the inventory released
+     */
+    COMPLETION_FAILED;
+
+    /**
+     * Returns the name used in file names and reports.
+     *
+     * @return the lower case, dash separated name
+     */
+    public String fileName() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
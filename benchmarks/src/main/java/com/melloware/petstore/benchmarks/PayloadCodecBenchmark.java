@@ -0,0 +1,66 @@
+package com.melloware.petstore.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.melloware.petstore.common.converter.DataConverterProducer;
+import com.melloware.petstore.common.converter.DeflatePayloadCodec;
+
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+
+/**
+ * CPU cost of the {@link DeflatePayloadCodec} on the largest activity input of
+ * a synthetic order. Use {@link PayloadSizeReport} for the matching history size
+ * reduction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadCodecBenchmark {
+
+    @Param({ "json", "smile" })
+    public String encoding;
+
+    @Param({ "500" })
+    public int lineItems;
+
+    private DeflatePayloadCodec codec;
+    private List<Payload> payloads;
+    private List<Payload> compressed;
+
+    @Setup
+    public void setup() {
+        DataConverter converter = DataConverterProducer.newDataConverter(
+                DataConverterProducer.ENCODING_SMILE.equals(encoding), false, 0);
+        Object value = ModelFixtures.models(lineItems).get("OrderSuccessEmailNotificationRequest");
+        codec = new DeflatePayloadCodec(true, 0);
+        payloads = List.of(converter.toPayload(value).orElseThrow());
+        compressed = codec.encode(payloads);
+    }
+
+    @Benchmark
+    public List<Payload> compress() {
+        return codec.encode(payloads);
+    }
+
+    @Benchmark
+    public List<Payload> decompress() {
+        return codec.decode(compressed);
+    }
+}
@@ -0,0 +1,68 @@
+package com.melloware.petstore.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.melloware.petstore.common.converter.DataConverterProducer;
+
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+
+/**
+ * Serialization cost of every petstore model with the JSON and Smile payload
+ * encodings. Use {@link PayloadSizeReport} for the matching payload sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadConverterBenchmark {
+
+    @Param({ "OrderPurchaseRequest", "WorkflowInitiationResponse", "CreateOrderRequest", "CreateOrderResponse",
+            "OrderReceivedEmailNotificationRequest", "DebitCreditCardRequest", "DebitCreditCardResponse",
+            "AuthorizePaymentResponse", "CapturePaymentRequest", "VoidPaymentRequest", "CheckInventoryRequest",
+            "CreateTrackingNumberRequest", "MarkOrderCompleteRequest", "OrderSuccessEmailNotificationRequest",
+            "ReverseActionsForTransactionRequest", "MarkOrderFailedRequest", "OrderErrorEmailNotificationRequest" })
+    public String model;
+
+    @Param({ "json", "smile" })
+    public String encoding;
+
+    @Param({ "5" })
+    public int lineItems;
+
+    private DataConverter converter;
+    private Object value;
+    private Payload payload;
+
+    @Setup
+    public void setup() {
+        converter = DataConverterProducer.newDataConverter(DataConverterProducer.ENCODING_SMILE.equals(encoding),
+                false, 0);
+        value = ModelFixtures.models(lineItems).get(model);
+        payload = converter.toPayload(value).orElseThrow();
+    }
+
+    @Benchmark
+    public Payload serialize() {
+        return converter.toPayload(value).orElseThrow();
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return converter.fromPayload(payload, value.getClass(), value.getClass());
+    }
+}
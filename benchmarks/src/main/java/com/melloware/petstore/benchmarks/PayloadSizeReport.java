@@ -0,0 +1,62 @@
+package com.melloware.petstore.benchmarks;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.melloware.petstore.common.converter.DataConverterProducer;
+
+import io.temporal.common.converter.DataConverter;
+
+/**
+ * Prints the payload size of every petstore model, and the total of one order,
+ * for each payload encoding with and without compression.
+ * <p>
+ * The total per order approximates the payload bytes an order adds to the
+ * workflow history, as every model is recorded once as an activity input or
+ * result.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar com.melloware.petstore.benchmarks.PayloadSizeReport [lineItems...]}
+ */
+public class PayloadSizeReport {
+
+    // Default compression threshold of the services
+    private static final int COMPRESSION_THRESHOLD = 4096;
+
+    public static void main(String[] args) {
+        int[] lineItemCounts = args.length == 0 ? new int[] { 5, 500 }
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+
+        Map<String, DataConverter> converters = new LinkedHashMap<>();
+        converters.put("json", DataConverterProducer.newDataConverter(false, false, 0));
+        converters.put("smile", DataConverterProducer.newDataConverter(true, false, 0));
+        converters.put("json+deflate", DataConverterProducer.newDataConverter(false, true, COMPRESSION_THRESHOLD));
+        converters.put("smile+deflate", DataConverterProducer.newDataConverter(true, true, COMPRESSION_THRESHOLD));
+
+        for (int lineItems : lineItemCounts) {
+            System.out.printf("%n%d line items%n", lineItems);
+            System.out.printf("%-40s", "model");
+            converters.keySet().forEach(name -> System.out.printf(" %14s", name));
+            System.out.println();
+
+            long[] totals = new long[converters.size()];
+            for (Map.Entry<String, Object> model : ModelFixtures.models(lineItems).entrySet()) {
+                System.out.printf("%-40s", model.getKey());
+                int column = 0;
+                for (DataConverter converter : converters.values()) {
+                    int bytes = converter.toPayload(model.getValue()).orElseThrow().getSerializedSize();
+                    totals[column++] += bytes;
+                    System.out.printf(" %14d", bytes);
+                }
+                System.out.println();
+            }
+
+            System.out.printf("%-40s", "bytes per order");
+            Arrays.stream(totals).forEach(total -> System.out.printf(" %14d", total));
+            System.out.println();
+            System.out.printf("%-40s", "vs json");
+            Arrays.stream(totals).forEach(total -> System.out.printf(" %13.1f%%", 100.0 * total / totals[0]));
+            System.out.println();
+        }
+    }
+}
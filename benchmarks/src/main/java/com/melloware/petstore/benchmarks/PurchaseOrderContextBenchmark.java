@@ -0,0 +1,63 @@
+package com.melloware.petstore.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.melloware.petstore.common.models.enums.OrderStatus;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderContext;
+
+/**
+ * Cost of the {@code toBuilder()} copies the purchase order workflow makes of
+ * its {@link PurchaseOrderContext} as the order progresses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PurchaseOrderContextBenchmark {
+
+    @Param({ "5", "500" })
+    public int lineItems;
+
+    private PurchaseOrderContext context;
+
+    @Setup
+    public void setup() {
+        context = ModelFixtures.purchaseOrderContext(lineItems);
+    }
+
+    @Benchmark
+    public PurchaseOrderContext toBuilder() {
+        return context.toBuilder()
+                .orderNumber("PET-ORD-01928c5e-7a4b-1f2e-3d4c")
+                .build();
+    }
+
+    @Benchmark
+    public PurchaseOrderContext workflowChain() {
+        // Same sequence of copies as PurchaseOrderWorkflowImpl
+        PurchaseOrderContext ctx = context.toBuilder()
+                .orderNumber("PET-ORD-01928c5e-7a4b-1f2e-3d4c")
+                .status(OrderStatus.PENDING)
+                .build();
+        ctx = ctx.toBuilder()
+                .orderTotal(149.85)
+                .build();
+        return ctx.toBuilder()
+                .trackingNumber("01928c5e-7a4b-7c3d-9e8f-123456789abc")
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.melloware.petstore.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderWorkflowImpl;
+
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.testing.WorkflowReplayer;
+import io.temporal.worker.Worker;
+
+/**
+ * Replays the purchase order histories written by {@link HistoryExporter}
+ * against the current {@link PurchaseOrderWorkflowImpl}, and prints the replay
+ * time per history.
+ * <p>
+ * A history which no longer replays, typically a workflow change missing its
+ * {@code Workflow.getVersion} gate, is reported with its cause and the report
+ * exits with status 1, so it can guard every change of the workflow.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar com.melloware.petstore.benchmarks.ReplayReport <directory> [iterations]}
+ */
+public class ReplayReport {
+
+    private static final String REPLAY_TASK_QUEUE = "replay";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayReport <directory> [iterations]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(file -> file.getFileName().toString().endsWith(".json")).sorted().toList();
+        }
+        if (files.isEmpty()) {
+            System.err.printf("No histories in %s%n", directory);
+            System.exit(2);
+        }
+
+        int failures = 0;
+        try (TestWorkflowEnvironment env = TestWorkflowEnvironment
+                .newInstance(HistoryExporter.newEnvironmentOptions())) {
+            Worker worker = env.newWorker(REPLAY_TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(PurchaseOrderWorkflowImpl.class);
+
+            System.out.printf("%-60s %8s %10s %12s%n", "history", "events", "bytes", "replay ms");
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                WorkflowExecutionHistory history = WorkflowExecutionHistory.fromJson(Files.readString(file));
+                try {
+                    // First replay checks determinism and warms up the worker
+                    WorkflowReplayer.replayWorkflowExecution(history, worker);
+                    long start = System.nanoTime();
+                    for (int i = 0; i < iterations; i++) {
+                        WorkflowReplayer.replayWorkflowExecution(history, worker);
+                    }
+                    System.out.printf("%-60s %8d %10d %12.3f%n", name, history.getEvents().size(),
+                            history.getHistory().getSerializedSize(),
+                            (System.nanoTime() - start) / 1e6 / iterations);
+                } catch (Exception e) {
+                    failures++;
+                    System.out.printf("%-60s FAILED %s%n", name, ExceptionUtils.getRootCauseMessage(e));
+                }
+            }
+        }
+
+        System.out.printf("%d histories replayed, %d failed%n", files.size(), failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+}
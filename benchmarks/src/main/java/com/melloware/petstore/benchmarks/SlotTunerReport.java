@@ -0,0 +1,125 @@
+package com.melloware.petstore.benchmarks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.melloware.petstore.common.worker.ResourceBasedSlotLimit;
+
+/**
+ * Synthetic load ramp against the {@link ResourceBasedSlotLimit} of the
+ * activity slot tuner, to check that the limit converges to what a dependency
+ * can take.
+ * <p>
+ * Worker threads stand in for the activity slots and call a simulated
+ * dependency, such as Postgres, which serves {@code capacity} calls at once in
+ * {@code baseMillis} and slows down linearly beyond. The number of busy worker
+ * threads ramps up by {@code step} every stage up to {@code slots}. Every
+ * sample interval the report prints the offered load, the range of the limit,
+ * the calls in flight, waiting and rejected after the longest wait, the mean
+ * latency and throughput, and the CPU and heap samples of the process. The top of the limit should settle at the
+ * capacity whatever the offered load above it.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar com.melloware.petstore.benchmarks.SlotTunerReport [slots] [capacity] [baseMillis] [step] [stageSeconds]}
+ */
+public class SlotTunerReport {
+
+    private static final long SAMPLE_MILLIS = 500;
+
+    // Default of petstore.temporal.worker.slot-tuner.max-wait
+    private static final Duration MAX_WAIT = Duration.ofSeconds(5);
+
+    public static void main(String[] args) throws InterruptedException {
+        int slots = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int capacity = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int baseMillis = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int step = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        int stageSeconds = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+
+        // Slower than twice the uncontended latency means the dependency is saturated
+        ResourceBasedSlotLimit limit = new ResourceBasedSlotLimit(10, 1, slots, 0.9,
+                Duration.ofMillis(baseMillis * 2L), 0.8, 0.85);
+        AtomicInteger busy = new AtomicInteger();
+        AtomicInteger dependency = new AtomicInteger();
+        AtomicLong calls = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong latencyNanos = new AtomicLong();
+        AtomicInteger lowest = new AtomicInteger(Integer.MAX_VALUE);
+        AtomicInteger highest = new AtomicInteger();
+
+        List<Thread> workers = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            int index = i;
+            Thread worker = new Thread(() -> {
+                try {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        if (index >= busy.get()) {
+                            Thread.sleep(100);
+                            continue;
+                        }
+                        if (!limit.acquire(MAX_WAIT)) {
+                            rejected.incrementAndGet();
+                            continue;
+                        }
+                        long start = System.nanoTime();
+                        try {
+                            call(dependency, capacity, baseMillis);
+                        } finally {
+                            long elapsed = System.nanoTime() - start;
+                            limit.onCompleted(elapsed);
+                            calls.incrementAndGet();
+                            latencyNanos.addAndGet(elapsed);
+                            lowest.accumulateAndGet(limit.getLimit(), Math::min);
+                            highest.accumulateAndGet(limit.getLimit(), Math::max);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    // Done
+                }
+            }, "slot-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+
+        System.out.printf("%d slots, dependency capacity %d calls of %d ms, +%d busy slots every %d s%n", slots,
+                capacity, baseMillis, step, stageSeconds);
+        System.out.printf("%8s %8s %12s %10s %8s %9s %12s %10s %8s %8s%n", "time s", "offered", "limit",
+                "in flight", "waiting", "rejected", "latency ms", "calls/s", "cpu %", "heap %");
+        long samplesPerStage = TimeUnit.SECONDS.toMillis(stageSeconds) / SAMPLE_MILLIS;
+        long sample = 0;
+        for (int offered = step; offered <= slots; offered += step) {
+            busy.set(offered);
+            for (long i = 0; i < samplesPerStage; i++, sample++) {
+                Thread.sleep(SAMPLE_MILLIS);
+                limit.sample();
+                long count = calls.getAndSet(0);
+                long nanos = latencyNanos.getAndSet(0);
+                int low = lowest.getAndSet(Integer.MAX_VALUE);
+                int high = highest.getAndSet(0);
+                System.out.printf("%8.1f %8d %12s %10d %8d %9d %12.1f %10.0f %8.0f %8.0f%n",
+                        (sample + 1) * SAMPLE_MILLIS / 1000.0, offered,
+                        count == 0 ? String.valueOf(limit.getLimit()) : low + "-" + high, limit.getInFlight(),
+                        limit.getWaiting(), rejected.getAndSet(0), count == 0 ? 0 : nanos / 1e6 / count, count * 1000.0 / SAMPLE_MILLIS,
+                        limit.getCpuLoad() * 100, limit.getHeapOccupancy() * 100);
+            }
+        }
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Calls the simulated dependency, which slows down in proportion to the calls
+     * it serves beyond its capacity.
+     */
+    private static void call(AtomicInteger dependency, int capacity, int baseMillis) throws InterruptedException {
+        int concurrent = dependency.incrementAndGet();
+        try {
+            Thread.sleep(baseMillis * Math.max(1, (long) Math.ceil((double) concurrent / capacity)));
+        } finally {
+            dependency.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.melloware.petstore.benchmarks;
+
+import com.melloware.petstore.common.activities.order.OrderNotificationActivities;
+import com.melloware.petstore.common.activities.order.OrderServiceActivities;
+import com.melloware.petstore.common.activities.payment.PaymentActivities;
+import com.melloware.petstore.common.activities.shipper.ShipperActivities;
+import com.melloware.petstore.common.activities.warehouse.WarehouseActivities;
+import com.melloware.petstore.common.models.enums.OrderStatus;
+import com.melloware.petstore.common.models.exceptions.BadPaymentInfoException;
+import com.melloware.petstore.common.models.exceptions.OutOfStockException;
+import com.melloware.petstore.common.models.exceptions.PaymentDeclinedException;
+import com.melloware.petstore.common.models.json.AuthorizePaymentResponse;
+import com.melloware.petstore.common.models.json.CancelShipmentRequest;
+import com.melloware.petstore.common.models.json.CapturePaymentRequest;
+import com.melloware.petstore.common.models.json.CheckInventoryRequest;
+import com.melloware.petstore.common.models.json.CreateOrderRequest;
+import com.melloware.petstore.common.models.json.CreateOrderResponse;
+import com.melloware.petstore.common.models.json.CreateTrackingNumberRequest;
+import com.melloware.petstore.common.models.json.DebitCreditCardRequest;
+import com.melloware.petstore.common.models.json.DebitCreditCardResponse;
+import com.melloware.petstore.common.models.json.MarkOrderCompleteRequest;
+import com.melloware.petstore.common.models.json.MarkOrderFailedRequest;
+import com.melloware.petstore.common.models.json.OrderErrorEmailNotificationRequest;
+import com.melloware.petstore.common.models.json.OrderReceivedEmailNotificationRequest;
+import com.melloware.petstore.common.models.json.OrderSuccessEmailNotificationRequest;
+import com.melloware.petstore.common.models.json.ReverseActionsForTransactionRequest;
+import com.melloware.petstore.common.models.json.VoidPaymentRequest;
+import com.melloware.petstore.common.utils.IdGenerator;
+
+/**
+ * Activities of every petstore service answering immediately, so a workflow
+ * can be run in a test environment without the services. The step failing
+ * in the {@link OrderScenario} throws the exception of the real service.
+ */
+public class StubActivities implements OrderServiceActivities, OrderNotificationActivities, PaymentActivities,
+        WarehouseActivities, ShipperActivities {
+
+    private final OrderScenario scenario;
+
+    public StubActivities() {
+        this(OrderScenario.COMPLETED);
+    }
+
+    public StubActivities(OrderScenario scenario) {
+        this.scenario = scenario;
+    }
+
+    @Override
+    public CreateOrderResponse createOrder(CreateOrderRequest request) {
+        return CreateOrderResponse.builder()
+                .transactionId(request.getTransactionId())
+                .customerEmail(request.getCustomerEmail())
+                .orderDate(request.getOrderDate())
+                .orderNumber(IdGenerator.newOrderNumber())
+                .status(OrderStatus.PENDING)
+                .build();
+    }
+
+    @Override
+    public void markOrderAsComplete(MarkOrderCompleteRequest request) {
+        if (scenario == OrderScenario.COMPLETION_FAILED) {
+            throw new IllegalArgumentException(
+                    "Previous order number %s was not found".formatted(request.getOrderNumber()));
+        }
+    }
+
+    @Override
+    public void markOrderAsFailed(MarkOrderFailedRequest request) {
+    }
+
+    @Override
+    public void sendOrderReceivedEmail(OrderReceivedEmailNotificationRequest request) {
+    }
+
+    @Override
+    public void sendOrderSuccessEmail(OrderSuccessEmailNotificationRequest request) {
+    }
+
+    @Override
+    public void sendOrderErrorEmail(OrderErrorEmailNotificationRequest request) {
+    }
+
+    @Override
+    public DebitCreditCardResponse debitCreditCard(DebitCreditCardRequest request) {
+        failPayment();
+        return DebitCreditCardResponse.builder()
+                .authorizationCode(IdGenerator.newAuthorizationCode())
+                .chargedAmount(request.getAmount())
+                .cardInfo(request.getCreditCard())
+                .build();
+    }
+
+    @Override
+    public AuthorizePaymentResponse authorizePayment(DebitCreditCardRequest request) {
+        failPayment();
+        return AuthorizePaymentResponse.builder()
+                .authorizationCode(IdGenerator.newAuthorizationCode())
+                .authorizedAmount(request.getAmount())
+                .build();
+    }
+
+    @Override
+    public void capturePayment(CapturePaymentRequest request) {
+    }
+
+    @Override
+    public void voidPayment(VoidPaymentRequest request) {
+    }
+
+    @Override
+    public void reversePaymentTransactions(ReverseActionsForTransactionRequest request) {
+    }
+
+    @Override
+    public void checkInventory(CheckInventoryRequest request) {
+        if (scenario == OrderScenario.OUT_OF_STOCK) {
+            throw new OutOfStockException("Items are out of stock");
+        }
+    }
+
+    @Override
+    public void releaseInventory(CheckInventoryRequest request) {
+    }
+
+    @Override
+    public String createTrackingNumber(CreateTrackingNumberRequest request) {
+        return IdGenerator.newTrackingNumber();
+    }
+
+    @Override
+    public void cancelShipment(CancelShipmentRequest request) {
+    }
+
+    private void failPayment() {
+        if (scenario == OrderScenario.PAYMENT_DECLINED) {
+            throw new PaymentDeclinedException("Payment declined");
+        } else if (scenario == OrderScenario.INVALID_PAYMENT) {
+            throw new BadPaymentInfoException("Invalid card number");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.melloware.petstore.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.melloware.petstore.common.models.exceptions.OutOfStockException;
+import com.melloware.petstore.common.models.exceptions.PaymentDeclinedException;
+import com.melloware.petstore.common.utils.TemporalActivityExceptionChecker;
+
+import io.temporal.failure.ApplicationFailure;
+
+/**
+ * Cost of {@link TemporalActivityExceptionChecker} on the failures the purchase
+ * order workflow inspects when an activity fails.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemporalActivityExceptionCheckerBenchmark {
+
+    private Exception applicationFailure;
+    private Exception otherFailure;
+
+    @Setup
+    public void setup() {
+        applicationFailure = new RuntimeException(
+                ApplicationFailure.newFailure("Out of stock", OutOfStockException.class.getName()));
+        otherFailure = new RuntimeException(new IllegalStateException("Timed out"));
+    }
+
+    @Benchmark
+    public boolean matchingType() {
+        return TemporalActivityExceptionChecker.isExceptionType(applicationFailure, OutOfStockException.class);
+    }
+
+    @Benchmark
+    public boolean otherType() {
+        return TemporalActivityExceptionChecker.isExceptionType(applicationFailure, PaymentDeclinedException.class);
+    }
+
+    @Benchmark
+    public boolean notApplicationFailure() {
+        return TemporalActivityExceptionChecker.isExceptionType(otherFailure, OutOfStockException.class);
+    }
+}
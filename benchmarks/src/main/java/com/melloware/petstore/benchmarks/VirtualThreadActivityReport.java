@@ -0,0 +1,165 @@
+package com.melloware.petstore.benchmarks;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.melloware.petstore.common.retry.FailureClassifier;
+import com.melloware.petstore.common.worker.VirtualThreadActivityInterceptor;
+
+import io.temporal.activity.ActivityInterface;
+import io.temporal.activity.ActivityOptions;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import io.temporal.worker.WorkerFactoryOptions;
+import io.temporal.worker.WorkerOptions;
+import io.temporal.workflow.Async;
+import io.temporal.workflow.Promise;
+import io.temporal.workflow.Workflow;
+import io.temporal.workflow.WorkflowInterface;
+import io.temporal.workflow.WorkflowMethod;
+
+/**
+ * Load test of activity executions blocked on I/O, on the SDK platform threads
+ * and on virtual threads through {@link VirtualThreadActivityInterceptor}.
+ * <p>
+ * A workflow fans out activities sleeping for a fixed time, standing in for a
+ * JDBC or SMTP call, with up to the given number in flight. For each mode the
+ * report prints the activities per second, the peak number of live threads and
+ * the resident memory added per in-flight activity. Virtual threads need JDK 21.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar com.melloware.petstore.benchmarks.VirtualThreadActivityReport [activities] [inFlight] [blockMillis]}
+ */
+public class VirtualThreadActivityReport {
+
+    private static final String TASK_QUEUE = "blocking-tasks";
+
+    public static void main(String[] args) throws Exception {
+        int activities = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int inFlight = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int blockMillis = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        System.out.printf("%d activities blocking %d ms, %d in flight%n", activities, blockMillis, inFlight);
+        System.out.printf("%-10s %14s %14s %18s%n", "threads", "activities/s", "peak threads", "KB per in-flight");
+        run("platform", null, activities, inFlight, blockMillis);
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        try {
+            run("virtual", new VirtualThreadActivityInterceptor(true, executor, new FailureClassifier(List.of())),
+                    activities, inFlight, blockMillis);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void run(String mode, VirtualThreadActivityInterceptor interceptor, int activities, int inFlight,
+            int blockMillis) throws IOException {
+        WorkerFactoryOptions.Builder factoryOptions = WorkerFactoryOptions.newBuilder();
+        if (interceptor != null) {
+            factoryOptions.setWorkerInterceptors(interceptor);
+        }
+        try (TestWorkflowEnvironment env = TestWorkflowEnvironment.newInstance(TestEnvironmentOptions.newBuilder()
+                .setWorkerFactoryOptions(factoryOptions.build())
+                .build())) {
+            Worker worker = env.newWorker(TASK_QUEUE, WorkerOptions.newBuilder()
+                    .setMaxConcurrentActivityExecutionSize(inFlight)
+                    .build());
+            worker.registerWorkflowImplementationTypes(BlockingWorkflowImpl.class);
+            worker.registerActivitiesImplementations(new BlockingActivitiesImpl());
+            env.start();
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            System.gc();
+            long baselineRss = residentMemory();
+            threads.resetPeakThreadCount();
+            AtomicLong peakRss = new AtomicLong(baselineRss);
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+            sampler.scheduleAtFixedRate(() -> peakRss.accumulateAndGet(residentMemory(), Math::max), 0, 10,
+                    TimeUnit.MILLISECONDS);
+
+            BlockingWorkflow workflow = env.getWorkflowClient().newWorkflowStub(BlockingWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(TASK_QUEUE).build());
+            long start = System.nanoTime();
+            workflow.run(activities, blockMillis);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            sampler.shutdownNow();
+
+            System.out.printf("%-10s %14.0f %14d %18s%n", mode, activities / seconds, threads.getPeakThreadCount(),
+                    baselineRss < 0 ? "n/a" : "%.1f".formatted((peakRss.get() - baselineRss) / 1024.0 / inFlight));
+        }
+    }
+
+    /**
+     * Returns the resident set size of the process.
+     *
+     * @return the size in bytes, -1 where {@code /proc} is not available
+     */
+    private static long residentMemory() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not on Linux
+        }
+        return -1;
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws ReflectiveOperationException {
+        // Compiled for Java 17, only available when running on Java 21 or later
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+
+    @ActivityInterface
+    public interface BlockingActivities {
+
+        void block(int millis);
+    }
+
+    public static class BlockingActivitiesImpl implements BlockingActivities {
+
+        @Override
+        public void block(int millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @WorkflowInterface
+    public interface BlockingWorkflow {
+
+        @WorkflowMethod
+        void run(int activities, int millis);
+    }
+
+    public static class BlockingWorkflowImpl implements BlockingWorkflow {
+
+        private final BlockingActivities activities = Workflow.newActivityStub(BlockingActivities.class,
+                ActivityOptions.newBuilder().setStartToCloseTimeout(Duration.ofMinutes(5)).build());
+
+        @Override
+        public void run(int count, int millis) {
+            List<Promise<Void>> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                results.add(Async.procedure(activities::block, millis));
+            }
+            Promise.allOf(results).get();
+        }
+    }
+}
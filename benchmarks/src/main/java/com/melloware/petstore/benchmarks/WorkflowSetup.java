@@ -0,0 +1,38 @@
+package com.melloware.petstore.benchmarks;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.spi.ConfigProviderResolver;
+
+/**
+ * Gateway settings changing the shape of the workflow history, applied as
+ * system properties before a test environment is started.
+ *
+ * @param localSteps   value of {@code petstore.activity.local-steps}
+ * @param slimPayloads value of {@code petstore.activity.slim-payloads}
+ */
+record WorkflowSetup(String localSteps, boolean slimPayloads) {
+
+    static final WorkflowSetup REMOTE = new WorkflowSetup("none", false);
+    static final WorkflowSetup LOCAL = new WorkflowSetup("validation,price", false);
+    static final WorkflowSetup REMOTE_SLIM = new WorkflowSetup("none", true);
+    static final WorkflowSetup LOCAL_SLIM = new WorkflowSetup("validation,price", true);
+
+    /**
+     * Sets the system properties and drops the cached configuration so the
+     * workflow reads them.
+     */
+    void apply() {
+        System.setProperty("petstore.activity.local-steps", localSteps);
+        System.setProperty("petstore.activity.slim-payloads", String.valueOf(slimPayloads));
+        ConfigProviderResolver.instance().releaseConfig(ConfigProvider.getConfig());
+    }
+
+    /**
+     * Returns the name used in file names.
+     *
+     * @return {@code remote} or {@code local}, suffixed with {@code -slim}
+     */
+    String fileName() {
+        return ("none".equals(localSteps) ? "remote" : "local") + (slimPayloads ? "-slim" : "");
+    }
+}
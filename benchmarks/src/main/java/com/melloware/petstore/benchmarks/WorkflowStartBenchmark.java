@@ -0,0 +1,145 @@
+package com.melloware.petstore.benchmarks;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.jboss.logmanager.MDC;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.melloware.petstore.common.models.json.Product;
+import com.melloware.petstore.order.gateway.PurchaseOrderService;
+import com.melloware.petstore.order.gateway.filters.RequestIdFilters;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderContext;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderWorkflow;
+
+import io.smallrye.mutiny.Uni;
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+
+/**
+ * Compares the blocking purchase endpoint with the non-blocking one, starting
+ * purchase workflows against an in-memory Temporal test server.
+ * <p>
+ * The JMH threads stand for concurrent clients, more of them than threads
+ * serving the starts. The blocking endpoint holds one of the
+ * {@code workerThreads} worker threads for the whole start, as the Quarkus
+ * worker pool does. The non-blocking endpoint copies the MDC context, hands the
+ * start to a pool of {@code petstore.gateway.start.max-concurrency} threads and
+ * completes a {@link Uni}, as {@link PurchaseOrderService#startPurchaseAsync}
+ * does. Throughput is the requests per millisecond and the sample time mode
+ * gives the p99 latency of a request. No worker polls the task queue, so only
+ * the start round trip is measured.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class WorkflowStartBenchmark {
+
+    private static final String TASK_QUEUE = "purchase-order-tasks";
+
+    // Default size of the Quarkus worker pool on a small pod
+    @Param({ "20" })
+    public int workerThreads;
+
+    // Default of petstore.gateway.start.max-concurrency
+    @Param({ "16" })
+    public int startMaxConcurrency;
+
+    private TestWorkflowEnvironment env;
+    private WorkflowClient client;
+    private PurchaseOrderContext context;
+    private ExecutorService workerPool;
+    private ExecutorService startPool;
+
+    @Setup
+    public void setup() {
+        env = TestWorkflowEnvironment.newInstance();
+        client = env.getWorkflowClient();
+        context = PurchaseOrderContext.builder()
+                .customerEmail("customer@petstore.com")
+                .products(IntStream.range(0, 5)
+                        .mapToObj(i -> Product.builder().sku("DOG-COLLAR-00" + i).quantity(1).price(19.99).build())
+                        .toList())
+                .requestDate(ZonedDateTime.now())
+                .requestedByHost("127.0.0.1")
+                .requestedByUser("benchmark")
+                .build();
+        // Initialize the Mutiny context propagation once, not from every client at a time
+        Uni.createFrom().completionStage(() -> CompletableFuture.completedStage(context)).await().indefinitely();
+        workerPool = Executors.newFixedThreadPool(workerThreads);
+        startPool = Executors.newFixedThreadPool(startMaxConcurrency);
+    }
+
+    @TearDown
+    public void tearDown() {
+        workerPool.shutdownNow();
+        startPool.shutdownNow();
+        env.close();
+    }
+
+    @Benchmark
+    public WorkflowExecution blockingStart() throws ExecutionException, InterruptedException {
+        return workerPool.submit(() -> {
+            // RequestIdFilters runs on the worker thread
+            try {
+                MDC.put(RequestIdFilters.REQUEST_ID_MDC_KEY, UUID.randomUUID().toString());
+                return start();
+            } finally {
+                MDC.clear();
+            }
+        }).get();
+    }
+
+    @Benchmark
+    public WorkflowExecution nonBlockingStart() {
+        // RequestIdFilters runs on the event loop
+        MDC.put(RequestIdFilters.REQUEST_ID_MDC_KEY, UUID.randomUUID().toString());
+        Map<String, String> mdcContext = MDC.copy();
+        MDC.clear();
+        return Uni.createFrom().completionStage(() -> CompletableFuture.supplyAsync(() -> {
+            try {
+                mdcContext.forEach(MDC::put);
+                return start();
+            } finally {
+                MDC.clear();
+            }
+        }, startPool)).await().indefinitely();
+    }
+
+    private WorkflowExecution start() {
+        PurchaseOrderContext ctx = context.toBuilder()
+                .transactionId(UUID.randomUUID())
+                .build();
+        PurchaseOrderWorkflow workflow = client.newWorkflowStub(PurchaseOrderWorkflow.class,
+                WorkflowOptions.newBuilder()
+                        .setWorkflowId(PurchaseOrderService.workflowId(ctx.getTransactionId()))
+                        .setTaskQueue(TASK_QUEUE)
+                        .build());
+        return WorkflowClient.start(workflow::placeOrder, ctx);
+    }
+}
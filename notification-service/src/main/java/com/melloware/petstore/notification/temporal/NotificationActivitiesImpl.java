@@ -9,9 +9,13 @@ import com.melloware.petstore.common.activities.order.OrderNotificationActivitie
 import com.melloware.petstore.common.models.json.OrderErrorEmailNotificationRequest;
 import com.melloware.petstore.common.models.json.OrderReceivedEmailNotificationRequest;
 import com.melloware.petstore.common.models.json.OrderSuccessEmailNotificationRequest;
+import com.melloware.petstore.common.orders.OrderProducts;
 
 /**
  * Handles notifications for order operations
+ * <p>
+ * The products of slim requests are resolved from the order before the email
+ * is rendered.
  */
 @ApplicationScoped
 public class NotificationActivitiesImpl implements OrderNotificationActivities {
@@ -19,9 +23,14 @@ public class NotificationActivitiesImpl implements OrderNotificationActivities {
     @Inject
     NotificationService service;
 
+    @Inject
+    OrderProducts orderProducts;
+
     @Override
     public void sendOrderReceivedEmail(@Valid @NotNull OrderReceivedEmailNotificationRequest request) {
-        service.sendOrderReceivedEmail(request);
+        service.sendOrderReceivedEmail(request.toBuilder()
+                .products(orderProducts.of(request.getTransactionNumber(), request.getProducts()))
+                .build());
     }
 
     @Override
@@ -31,7 +40,9 @@ public class NotificationActivitiesImpl implements OrderNotificationActivities {
 
     @Override
     public void sendOrderSuccessEmail(@Valid @NotNull OrderSuccessEmailNotificationRequest request) {
-        service.sendOrderSuccessEmail(request);
+        service.sendOrderSuccessEmail(request.toBuilder()
+                .products(orderProducts.of(request.getTransactionNumber(), request.getProducts()))
+                .build());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.melloware.petstore.order;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import com.melloware.petstore.common.models.json.Product;
+import com.melloware.petstore.order.temporal.OrderService;
+
+/**
+ * Read access to the orders, for the services handling slim activity requests
+ * which only carry the transaction id of the order.
+ */
+@Path("/api/v1/orders")
+@Tag(name = "Order", description = "Operations related to stored orders")
+public class OrderResource {
+
+    @Inject
+    OrderService orderService;
+
+    /**
+     * Returns the products of an order.
+     *
+     * @param transactionId the transaction id of the order
+     * @return the products of the order
+     */
+    @GET
+    @Path("/{transactionId}/products")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get the products of an order", description = "Returns the products saved when the order was created")
+    @APIResponse(responseCode = "200", description = "Products of the order", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(type = SchemaType.ARRAY, implementation = Product.class)))
+    @APIResponse(responseCode = "404", description = "No order has the transaction id")
+    public List<Product> getProducts(
+            @Parameter(description = "Transaction id of the order", required = true) @PathParam("transactionId") UUID transactionId) {
+        return orderService.findProducts(transactionId);
+    }
+}
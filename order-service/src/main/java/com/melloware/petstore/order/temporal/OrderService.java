@@ -1,5 +1,6 @@
 package com.melloware.petstore.order.temporal;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -10,12 +11,15 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
+import jakarta.ws.rs.NotFoundException;
 
 import com.melloware.petstore.common.models.enums.OrderStatus;
 import com.melloware.petstore.common.models.json.CreateOrderRequest;
 import com.melloware.petstore.common.models.json.CreateOrderResponse;
 import com.melloware.petstore.common.models.json.MarkOrderCompleteRequest;
 import com.melloware.petstore.common.models.json.MarkOrderFailedRequest;
+import com.melloware.petstore.common.models.json.Product;
+import com.melloware.petstore.common.utils.IdGenerator;
 import com.melloware.petstore.order.entity.OrderEntity;
 import com.melloware.petstore.order.entity.OrderLineItemEntity;
 import com.melloware.petstore.order.repository.OrderRepository;
@@ -36,6 +40,9 @@ public class OrderService {
 
     /**
      * Marks an order as complete.
+     * <p>
+     * A slim request carries no products, the line items saved when the order
+     * was created are kept.
      *
      * @param ctx The request containing information to mark the order as complete.
      * @throws IllegalArgumentException if the order is not found or if there's an
@@ -59,22 +66,14 @@ public class OrderService {
         // Set order total
         record.setOrderTotal(ctx.getOrderTotal());
 
-        // Build line items
-        Set<OrderLineItemEntity> lineItems = ctx.getProducts().stream()
-                .map(p -> {
-                    OrderLineItemEntity lineItem = new OrderLineItemEntity();
-                    lineItem.setProductSku(p.getSku());
-                    lineItem.setQuantity(p.getQuantity());
-                    lineItem.setUnitPrice(p.getPrice());
-                    return lineItem;
-                }).collect(Collectors.toSet());
-
         // Set the status
         record.setStatus(OrderStatus.COMPLETED);
 
         // Clear existing line items and add new ones
-        record.getLineItems().clear();
-        record.getLineItems().addAll(lineItems);
+        if (ctx.getProducts() != null && !ctx.getProducts().isEmpty()) {
+            record.getLineItems().clear();
+            record.getLineItems().addAll(toLineItems(ctx.getProducts()));
+        }
 
         try {
             orderRepo.saveOrUpdate(record);
@@ -88,6 +87,10 @@ public class OrderService {
 
     /**
      * Creates a new order.
+     * <p>
+     * The products are saved as the line items of the order, which
+     * {@link #findProducts(UUID)} serves to the later steps of slim requests,
+     * so they only need to carry the transaction id.
      *
      * @param request The request containing information to create a new order.
      * @return A CreateOrderResponse containing the details of the created order.
@@ -147,6 +150,9 @@ public class OrderService {
         record.setStatus(OrderStatus.PENDING);
         record.setRequestedByHost(request.getRequestedByHost());
         record.setRequestedByUser(request.getRequestedByUser());
+        if (request.getProducts() != null) {
+            record.setLineItems(toLineItems(request.getProducts()));
+        }
         orderRepo.saveOrUpdate(record);
 
         log.infof("Created new order %s with TX id %s", record.getOrderNumber(), record.getTransactionId());
@@ -192,29 +198,56 @@ public class OrderService {
         record.setFailureReason(request.getReason());
     }
 
+    /**
+     * Returns the products of an order, from the line items saved when it was
+     * created, for the services handling slim requests.
+     *
+     * @param transactionId The transaction id of the order.
+     * @return the products of the order
+     * @throws NotFoundException if no order has the transaction id.
+     */
+    @Transactional
+    public List<Product> findProducts(UUID transactionId) {
+        OrderEntity record = orderRepo.findByTransactionId(transactionId)
+                .orElseThrow(() -> new NotFoundException(
+                        "Order for TX %s was not found".formatted(transactionId)));
+        return record.getLineItems().stream()
+                .map(lineItem -> Product.builder()
+                        .sku(lineItem.getProductSku())
+                        .quantity(lineItem.getQuantity())
+                        .price(lineItem.getUnitPrice())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Builds the line items of an order.
+     *
+     * @param products The products ordered.
+     * @return the line items
+     */
+    private Set<OrderLineItemEntity> toLineItems(List<Product> products) {
+        return products.stream()
+                .map(p -> {
+                    OrderLineItemEntity lineItem = new OrderLineItemEntity();
+                    lineItem.setProductSku(p.getSku());
+                    lineItem.setQuantity(p.getQuantity());
+                    lineItem.setUnitPrice(p.getPrice());
+                    return lineItem;
+                }).collect(Collectors.toSet());
+    }
+
     /**
      * Generates a new order number.
+     * <p>
+     * Order numbers lead with their creation time so new rows land at the end of
+     * the unique index on {@code order_number}.
      *
      * @return A string representing the newly generated order number.
      */
     private String generateOrderNumber() {
-
-        // Generate a UUID
-        UUID uuid = UUID.randomUUID();
-
-        // Convert UUID to a string and remove the hyphens
-        String uuidString = uuid.toString().replace("-", "");
-
-        // Extract the first 16 hexadecimal digits
-        String first16HexDigits = uuidString.substring(0, 16);
-
-        // Format the string to match RJT-xxxxxxxx-xxxx-xxxx
-        String formattedOrderNumber = String.format("PET-ORD-%s-%s-%s",
-                first16HexDigits.substring(0, 8),
-                first16HexDigits.substring(8, 12),
-                first16HexDigits.substring(12, 16));
-
-        log.infof("Generated a new order number: %s", formattedOrderNumber);
-        return formattedOrderNumber;
+        String orderNumber = IdGenerator.newOrderNumber();
+        log.infof("Generated a new order number: %s", orderNumber);
+        return orderNumber;
     }
 }
\ No newline at end of file
@@ -6,9 +6,12 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 
 import com.melloware.petstore.common.activities.payment.PaymentActivities;
+import com.melloware.petstore.common.models.json.AuthorizePaymentResponse;
+import com.melloware.petstore.common.models.json.CapturePaymentRequest;
 import com.melloware.petstore.common.models.json.DebitCreditCardRequest;
 import com.melloware.petstore.common.models.json.DebitCreditCardResponse;
 import com.melloware.petstore.common.models.json.ReverseActionsForTransactionRequest;
+import com.melloware.petstore.common.models.json.VoidPaymentRequest;
 
 /**
  * Implementation of the Payment Activity.
@@ -30,6 +33,37 @@ public class PaymentActivitiesImpl implements PaymentActivities {
         return service.debitAccount(request);
     }
 
+    /**
+     * Attempt to authorize the amount on the credit card
+     *
+     * @param request {@link DebitCreditCardRequest}
+     * @return {@link AuthorizePaymentResponse}
+     */
+    @Override
+    public AuthorizePaymentResponse authorizePayment(@Valid @NotNull DebitCreditCardRequest request) {
+        return service.authorize(request);
+    }
+
+    /**
+     * Charge the authorized amount
+     *
+     * @param request {@link CapturePaymentRequest}
+     */
+    @Override
+    public void capturePayment(@Valid @NotNull CapturePaymentRequest request) {
+        service.capture(request);
+    }
+
+    /**
+     * Release the authorization
+     *
+     * @param request {@link VoidPaymentRequest}
+     */
+    @Override
+    public void voidPayment(@Valid @NotNull VoidPaymentRequest request) {
+        service.voidAuthorization(request);
+    }
+
     /**
      * Reverse any transactions for the given request and card IDs
      *
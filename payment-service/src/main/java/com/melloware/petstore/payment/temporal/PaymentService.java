@@ -1,7 +1,6 @@
 package com.melloware.petstore.payment.temporal;
 
 import java.util.Objects;
-import java.util.UUID;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.validation.Valid;
@@ -9,9 +8,13 @@ import jakarta.validation.constraints.NotNull;
 
 import com.melloware.petstore.common.models.exceptions.BadPaymentInfoException;
 import com.melloware.petstore.common.models.exceptions.PaymentDeclinedException;
+import com.melloware.petstore.common.models.json.AuthorizePaymentResponse;
+import com.melloware.petstore.common.models.json.CapturePaymentRequest;
 import com.melloware.petstore.common.models.json.DebitCreditCardRequest;
 import com.melloware.petstore.common.models.json.DebitCreditCardResponse;
 import com.melloware.petstore.common.models.json.ReverseActionsForTransactionRequest;
+import com.melloware.petstore.common.models.json.VoidPaymentRequest;
+import com.melloware.petstore.common.utils.IdGenerator;
 
 import lombok.extern.jbosslog.JBossLog;
 
@@ -64,10 +67,76 @@ public class PaymentService {
          * original credit card information.
          */
 
+        validateCard(request);
+
+        // Return the response
+        return DebitCreditCardResponse.builder()
+                .authorizationCode(IdGenerator.newAuthorizationCode())
+                .cardInfo(request.getCreditCard())
+                .chargedAmount(request.getAmount())
+                .build();
+
+    }
+
+    /**
+     * Holds the amount on a credit card account without charging it
+     *
+     * @param request {@link DebitCreditCardRequest}
+     * @return {@link AuthorizePaymentResponse}
+     */
+    public AuthorizePaymentResponse authorize(@Valid @NotNull DebitCreditCardRequest request) {
+
+        Objects.requireNonNull(request, "DebitCreditCardRequest instance required");
+        log.infof("Attempting to authorize %.2f on credit card %s", request.getAmount(),
+                request.getCreditCard().getCardNumber());
+
+        validateCard(request);
+
+        return AuthorizePaymentResponse.builder()
+                .authorizationCode(IdGenerator.newAuthorizationCode())
+                .authorizedAmount(request.getAmount())
+                .build();
+    }
+
+    /**
+     * Charges a previously authorized amount
+     *
+     * @param request {@link CapturePaymentRequest}
+     */
+    public void capture(@Valid @NotNull CapturePaymentRequest request) {
+        Objects.requireNonNull(request, "CapturePaymentRequest instance required");
+
+        /**
+         * This is where you'd ask your credit card 3rd party api to settle the
+         * authorization
+         */
+        log.infof("Captured %.2f of authorization %s for TX id %s", request.getAmount(),
+                request.getAuthorizationCode(), request.getTransactionId());
+    }
+
+    /**
+     * Releases an authorization which was never captured
+     *
+     * @param request {@link VoidPaymentRequest}
+     */
+    public void voidAuthorization(@Valid @NotNull VoidPaymentRequest request) {
+        Objects.requireNonNull(request, "VoidPaymentRequest instance required");
+
         /**
-         * For demo, you could throw a bad payment info if the email isn't valid
-         * and another error for any orders over 1000 dollars, etc.
+         * This is where you'd ask your credit card 3rd party api to release the
+         * hold, which unlike a refund costs nothing
          */
+        log.infof("Voided authorization %s for TX id %s", request.getAuthorizationCode(),
+                request.getTransactionId());
+    }
+
+    /**
+     * For demo, you could throw a bad payment info if the email isn't valid
+     * and another error for any orders over 1000 dollars, etc.
+     *
+     * @param request {@link DebitCreditCardRequest}
+     */
+    private void validateCard(DebitCreditCardRequest request) {
         final int creditLimit = 1000;
         if ("bad_customer@foo.com".equalsIgnoreCase(request.getCustomerEmail())) {
             throw new BadPaymentInfoException("Customer email doesn't match card owner");
@@ -75,14 +144,6 @@ public class PaymentService {
             throw new PaymentDeclinedException(
                     "Order amount " + request.getAmount() + " exceeds credit limit of " + creditLimit);
         }
-
-        // Return the response
-        return DebitCreditCardResponse.builder()
-                .authorizationCode(UUID.randomUUID())
-                .cardInfo(request.getCreditCard())
-                .chargedAmount(request.getAmount())
-                .build();
-
     }
 
 }
\ No newline at end of file
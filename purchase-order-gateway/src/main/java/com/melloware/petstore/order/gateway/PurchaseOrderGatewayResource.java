@@ -1,31 +1,41 @@
 package com.melloware.petstore.order.gateway;
 
-import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.logmanager.MDC;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 
 import com.melloware.petstore.common.models.json.OrderPurchaseRequest;
 import com.melloware.petstore.common.models.json.WorkflowInitiationResponse;
 import com.melloware.petstore.order.gateway.filters.RequestIdFilters;
-import com.melloware.petstore.order.gateway.temporal.PurchaseOrderContext;
-import com.melloware.petstore.order.gateway.temporal.PurchaseOrderWorkflow;
+import com.melloware.petstore.order.gateway.progress.OrderProgressHub;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderStatus;
 
 import io.micrometer.core.annotation.Timed;
-import io.temporal.client.WorkflowClient;
-import io.temporal.client.WorkflowOptions;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 
 import lombok.extern.jbosslog.JBossLog;
 
@@ -38,17 +48,34 @@ import lombok.extern.jbosslog.JBossLog;
 @Tag(name = "Purchase Order", description = "Operations related to purchasing orders")
 public class PurchaseOrderGatewayResource {
 
-    @ConfigProperty(name = "quarkus.temporal.worker.task-queue")
-    String taskQueue;
+    @ConfigProperty(name = "petstore.gateway.batch.max-size", defaultValue = "500")
+    int batchMaxSize;
+
+    @ConfigProperty(name = "petstore.gateway.idempotency-key.max-length", defaultValue = "255")
+    int idempotencyKeyMaxLength;
+
+    @Inject
+    PurchaseOrderService purchaseOrderService;
 
     @Inject
-    WorkflowClient client;
+    OrderProgressHub orderProgressHub;
 
     /**
      * Initiates the product purchase process by starting a workflow that interacts
      * with various services to create a new order and notify the user.
+     * <p>
+     * Clients may send an {@code Idempotency-Key} header to safely retry the
+     * request. Every request of the same caller with the same key and body maps
+     * to the same transaction and starts at most one workflow, while a recent
+     * key reused with a different body is rejected with 422.
+     * <p>
+     * With {@code petstore.gateway.purchase.update-with-start.enabled} the
+     * response waits for the order record and also carries the order number and
+     * status.
      *
-     * @param request The order purchase request containing details about the order.
+     * @param request        The order purchase request containing details about
+     *                       the order.
+     * @param idempotencyKey Optional idempotency key of the request.
      * @return A Response object with the transaction ID of the initiated workflow.
      * @throws RuntimeException if there's an error processing the order purchase
      *                          request.
@@ -59,39 +86,163 @@ public class PurchaseOrderGatewayResource {
     @Operation(summary = "Initiate a product purchase", description = "Starts the workflow to process a new order purchase")
     @APIResponse(responseCode = "202", description = "Order purchase request accepted", content = @Content(mediaType = "application/json", schema = @Schema(implementation = WorkflowInitiationResponse.class)))
     @APIResponse(responseCode = "500", description = "Internal server error")
+    @APIResponse(responseCode = "400", description = "Idempotency key is too long")
+    @APIResponse(responseCode = "422", description = "Idempotency key already used with a different request")
+    @APIResponse(responseCode = "429", description = "Too many orders in flight, retry after the Retry-After header")
+    @APIResponse(responseCode = "503", description = "Order intake is overloaded, retry after the Retry-After header")
     public Response purchaseOrder(
-            @Valid @Schema(implementation = OrderPurchaseRequest.class) OrderPurchaseRequest request) {
+            @Valid @Schema(implementation = OrderPurchaseRequest.class) OrderPurchaseRequest request,
+            @Parameter(description = "Key to safely retry the request") @HeaderParam(RequestIdFilters.IDEMPOTENCY_KEY_HEADER) String idempotencyKey) {
         log.infof("Initiating order purchase request with incoming request - %s", request);
+        validateIdempotencyKey(idempotencyKey);
 
         try {
-            // Get the transaction id from the request
-            UUID requestId = UUID.fromString(MDC.get(RequestIdFilters.REQUEST_ID_MDC_KEY));
-
-            // Start the workflow
-            PurchaseOrderWorkflow workflow = client.newWorkflowStub(PurchaseOrderWorkflow.class,
-                    WorkflowOptions.newBuilder()
-                            .setWorkflowId("OrderPurchase-" + requestId.toString())
-                            .setTaskQueue(taskQueue).build());
-
-            // Create the context
-            PurchaseOrderContext ctx = PurchaseOrderContext.builder()
-                    .transactionId(requestId)
-                    .customerEmail(request.getCustomerEmail())
-                    .creditCard(request.getCreditCard())
-                    .products(request.getProducts())
-                    .requestDate(ZonedDateTime.now())
-                    .requestedByHost(MDC.get(RequestIdFilters.REQUEST_IP_MDC_KEY))
-                    .requestedByUser(MDC.get(RequestIdFilters.REQUEST_USER_MDC_KEY))
-                    .build();
-
-            WorkflowClient.start(workflow::placeOrder, ctx);
-            return Response.accepted(WorkflowInitiationResponse.builder()
-                    .transactionId(requestId)
-                    .build())
-                    .build();
+            WorkflowInitiationResponse response = idempotencyKey == null
+                    ? purchaseOrderService.startPurchase(requestId(), request)
+                    : purchaseOrderService.startIdempotentPurchase(idempotencyKey, request);
+            return Response.accepted(response).build();
         } catch (Exception e) {
-            log.error("Error processing order purchase request", e);
-            throw new RuntimeException("Error processing order purchase request", e);
+            throw PurchaseOrderService.purchaseFailure(e);
+        }
+    }
+
+    /**
+     * Initiates the product purchase process without blocking the request
+     * thread.
+     * <p>
+     * Behaves like {@link #purchaseOrder(OrderPurchaseRequest, String)} but the
+     * workflow start round-trip to Temporal is performed on the gateway start pool
+     * and the response is emitted once the workflow has been started.
+     *
+     * @param request        The order purchase request containing details about
+     *                       the order.
+     * @param idempotencyKey Optional idempotency key of the request.
+     * @return A Uni emitting the Response with the transaction ID of the initiated
+     *         workflow.
+     */
+    @Path("/purchase/async")
+    @Timed
+    @POST
+    @Operation(summary = "Initiate a product purchase without blocking", description = "Starts the workflow to process a new order purchase on the non-blocking path")
+    @APIResponse(responseCode = "202", description = "Order purchase request accepted", content = @Content(mediaType = "application/json", schema = @Schema(implementation = WorkflowInitiationResponse.class)))
+    @APIResponse(responseCode = "500", description = "Internal server error")
+    @APIResponse(responseCode = "400", description = "Idempotency key is too long")
+    @APIResponse(responseCode = "422", description = "Idempotency key already used with a different request")
+    @APIResponse(responseCode = "429", description = "Too many orders in flight, retry after the Retry-After header")
+    @APIResponse(responseCode = "503", description = "Order intake is overloaded, retry after the Retry-After header")
+    public Uni<Response> purchaseOrderAsync(
+            @Valid @Schema(implementation = OrderPurchaseRequest.class) OrderPurchaseRequest request,
+            @Parameter(description = "Key to safely retry the request") @HeaderParam(RequestIdFilters.IDEMPOTENCY_KEY_HEADER) String idempotencyKey) {
+        log.infof("Initiating non-blocking order purchase request with incoming request - %s", request);
+        validateIdempotencyKey(idempotencyKey);
+
+        return Uni.createFrom().completionStage(() -> idempotencyKey == null
+                ? purchaseOrderService.startPurchaseAsync(requestId(), request)
+                : purchaseOrderService.startIdempotentPurchaseAsync(idempotencyKey, request))
+                .map(response -> Response.accepted(response).build())
+                .onFailure().transform(PurchaseOrderService::purchaseFailure);
+    }
+
+    /**
+     * Initiates a batch of product purchases in a single call, starting one
+     * workflow per order.
+     * <p>
+     * Every order gets its own transaction id. Orders which could not be started
+     * are reported with an error in their response rather than failing the whole
+     * batch.
+     * <p>
+     * A batch sent with an {@code Idempotency-Key} header can be retried as a
+     * whole: the orders of the same caller, key and body map to the same
+     * transactions, and a recent key reused with a different body is rejected
+     * with 422.
+     *
+     * @param requests       The order purchase requests.
+     * @param idempotencyKey Optional idempotency key of the batch.
+     * @return A Response object with one initiation response per order, in
+     *         request order.
+     */
+    @Path("/purchase/batch")
+    @Timed
+    @POST
+    @Operation(summary = "Initiate a batch of product purchases", description = "Starts one workflow per order in the batch")
+    @APIResponse(responseCode = "202", description = "Order purchase requests accepted", content = @Content(mediaType = "application/json", schema = @Schema(implementation = WorkflowInitiationResponse.class, type = SchemaType.ARRAY)))
+    @APIResponse(responseCode = "400", description = "Batch is empty or too large, or idempotency key is too long")
+    @APIResponse(responseCode = "422", description = "Idempotency key already used with a different batch")
+    public Response purchaseOrders(
+            @Valid @NotEmpty(message = "At least one order is required") List<@Valid OrderPurchaseRequest> requests,
+            @Parameter(description = "Key to safely retry the batch") @HeaderParam(RequestIdFilters.IDEMPOTENCY_KEY_HEADER) String idempotencyKey) {
+        if (requests.size() > batchMaxSize) {
+            throw new BadRequestException(
+                    "Batch of %d orders exceeds the maximum of %d".formatted(requests.size(), batchMaxSize));
+        }
+        validateIdempotencyKey(idempotencyKey);
+        return Response.accepted(idempotencyKey == null
+                ? purchaseOrderService.startPurchases(requests)
+                : purchaseOrderService.startIdempotentPurchases(idempotencyKey, requests)).build();
+    }
+
+    /**
+     * Returns the current status of an order.
+     * <p>
+     * Statuses are cached for a short time, so frequent polling is answered
+     * from memory and may trail the workflow by up to the cache TTL.
+     *
+     * @param transactionId The transaction ID returned when the order was placed.
+     * @return The {@link PurchaseOrderStatus} of the order.
+     */
+    @Path("/purchase/{transactionId}")
+    @Timed
+    @GET
+    @Operation(summary = "Get the status of a product purchase", description = "Returns the current step, order number, tracking number and failure reason of an order")
+    @APIResponse(responseCode = "200", description = "Order status", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PurchaseOrderStatus.class)))
+    @APIResponse(responseCode = "404", description = "No order found for the transaction ID")
+    @APIResponse(responseCode = "503", description = "The order is running but its status cannot be queried, retry later")
+    public PurchaseOrderStatus getPurchaseOrderStatus(@PathParam("transactionId") UUID transactionId) {
+        return purchaseOrderService.getStatus(transactionId);
+    }
+
+    /**
+     * Streams the step transitions of an order as server-sent events.
+     * <p>
+     * The stream starts with the current status and completes once the order
+     * reaches a final step, replacing polling of the status endpoint.
+     *
+     * @param transactionId The transaction ID returned when the order was placed.
+     * @return A stream of {@link PurchaseOrderStatus} events.
+     */
+    @Path("/purchase/{transactionId}/events")
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Stream the progress of a product purchase", description = "Pushes a server-sent event every time the order moves to a new step")
+    @APIResponse(responseCode = "200", description = "Stream of order statuses", content = @Content(mediaType = MediaType.SERVER_SENT_EVENTS, schema = @Schema(implementation = PurchaseOrderStatus.class)))
+    @APIResponse(responseCode = "404", description = "No order found for the transaction ID")
+    @APIResponse(responseCode = "503", description = "Too many progress subscribers")
+    public Multi<PurchaseOrderStatus> streamPurchaseOrderProgress(@PathParam("transactionId") UUID transactionId) {
+        return orderProgressHub.subscribe(transactionId);
+    }
+
+    /**
+     * Returns the transaction id of a request without idempotency key, the
+     * request id set by {@link RequestIdFilters}.
+     *
+     * @return the transaction id
+     */
+    private static UUID requestId() {
+        return UUID.fromString(MDC.get(RequestIdFilters.REQUEST_ID_MDC_KEY));
+    }
+
+    /**
+     * Rejects idempotency keys which are blank or too long to be kept in the
+     * idempotency cache.
+     *
+     * @param idempotencyKey the idempotency key, may be {@code null}
+     * @throws BadRequestException if the key is invalid
+     */
+    private void validateIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > idempotencyKeyMaxLength)) {
+            throw new BadRequestException(
+                    "Idempotency key must be between 1 and %d characters".formatted(idempotencyKeyMaxLength));
         }
     }
-}
\ No newline at end of file
+}
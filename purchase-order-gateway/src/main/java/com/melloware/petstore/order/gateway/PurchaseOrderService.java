@@ -0,0 +1,748 @@
+package com.melloware.petstore.order.gateway;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.ServiceUnavailableException;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logmanager.MDC;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.melloware.petstore.common.models.enums.OrderStatus;
+import com.melloware.petstore.common.models.json.CreateOrderResponse;
+import com.melloware.petstore.common.models.json.OrderPurchaseRequest;
+import com.melloware.petstore.common.models.json.WorkflowInitiationResponse;
+import com.melloware.petstore.common.utils.IdGenerator;
+import com.melloware.petstore.order.gateway.admission.AdmissionController;
+import com.melloware.petstore.order.gateway.admission.AdmissionRejectedException;
+import com.melloware.petstore.order.gateway.eager.FirstWorkflowTaskInterceptor;
+import com.melloware.petstore.order.gateway.filters.RequestIdFilters;
+import com.melloware.petstore.order.gateway.idempotency.IdempotencyKeyReusedException;
+import com.melloware.petstore.order.gateway.idempotency.IdempotentResponse;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderContext;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderStatus;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderStep;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderWorkflow;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CacheResult;
+import io.smallrye.mutiny.Uni;
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.api.enums.v1.WorkflowExecutionStatus;
+import io.temporal.api.enums.v1.WorkflowIdConflictPolicy;
+import io.temporal.api.enums.v1.WorkflowIdReusePolicy;
+import io.temporal.api.workflowservice.v1.DescribeWorkflowExecutionRequest;
+import io.temporal.client.UpdateWithStartWorkflowOperation;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowExecutionAlreadyStarted;
+import io.temporal.client.WorkflowNotFoundException;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowQueryException;
+import io.temporal.client.WorkflowUpdateException;
+import io.temporal.client.WorkflowUpdateHandle;
+import io.temporal.client.WorkflowUpdateStage;
+import io.temporal.failure.ApplicationFailure;
+
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Service class which starts the purchase order workflows.
+ * <p>
+ * Blocking single orders are started on the calling thread. Batches and
+ * non-blocking starts are handed to a fixed size pool so a burst of orders never
+ * opens more than {@code petstore.gateway.start.max-concurrency} concurrent
+ * starts against the Temporal server. Its queue holds at most
+ * {@code petstore.gateway.start.queue-size} starts, beyond which orders are
+ * rejected with 429.
+ * <p>
+ * Requests carrying an idempotency key are answered from the
+ * {@code idempotency-keys} cache when the key was seen recently, so client
+ * retries do not cost a Temporal round-trip. Keys are namespaced by caller, and
+ * a key reused with a different body is rejected.
+ * <p>
+ * Every workflow start goes through the {@link AdmissionController} which sheds
+ * orders while Temporal or its workers fall behind. Non-blocking starts are
+ * admitted before they are queued.
+ * <p>
+ * With {@code petstore.gateway.purchase.update-with-start.enabled}, a single
+ * order is started together with the {@code awaitOrderCreated} update and the
+ * response carries the order number and status as soon as the order record is
+ * created, so clients no longer poll for them. Only the start and the
+ * acceptance of the update go through admission control; the wait for the
+ * order is bounded by {@code petstore.gateway.purchase.update-with-start.timeout},
+ * after which the transaction id alone is returned. Batches are always started
+ * without waiting.
+ * <p>
+ * With {@code petstore.gateway.start.eager.enabled}, workflows started without
+ * waiting for the order request an eager start: the server hands their first
+ * workflow task to the worker of this gateway in the start response instead of
+ * queueing it for a poll. The {@link FirstWorkflowTaskInterceptor} times the
+ * first task of both kinds of starts.
+ */
+@ApplicationScoped
+@JBossLog
+public class PurchaseOrderService {
+
+    /**
+     * Prefix of every purchase order workflow id
+     */
+    public static final String WORKFLOW_ID_PREFIX = "OrderPurchase-";
+
+    @ConfigProperty(name = "quarkus.temporal.worker.task-queue")
+    String taskQueue;
+
+    @ConfigProperty(name = "petstore.gateway.start.max-concurrency", defaultValue = "16")
+    int startMaxConcurrency;
+
+    @ConfigProperty(name = "petstore.gateway.start.queue-size", defaultValue = "1000")
+    int startQueueSize;
+
+    @ConfigProperty(name = "petstore.gateway.start.eager.enabled", defaultValue = "false")
+    boolean eagerStart;
+
+    @ConfigProperty(name = "petstore.gateway.purchase.update-with-start.enabled", defaultValue = "false")
+    boolean updateWithStart;
+
+    @ConfigProperty(name = "petstore.gateway.purchase.update-with-start.timeout", defaultValue = "30s")
+    Duration updateWithStartTimeout;
+
+    @Inject
+    WorkflowClient client;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    AdmissionController admissionController;
+
+    @Inject
+    FirstWorkflowTaskInterceptor firstWorkflowTask;
+
+    @Inject
+    @CacheName("idempotency-keys")
+    Cache idempotencyCache;
+
+    // Pool used to start the workflows of batches and non-blocking requests
+    private ExecutorService startExecutor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // Bounded queue, a start which does not fit is rejected
+        startExecutor = new ThreadPoolExecutor(startMaxConcurrency, startMaxConcurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(startQueueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "purchase-start-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        startExecutor.shutdown();
+    }
+
+    /**
+     * Returns the workflow id used for the given transaction.
+     *
+     * @param transactionId the transaction id of the order
+     * @return the workflow id
+     */
+    public static String workflowId(UUID transactionId) {
+        return WORKFLOW_ID_PREFIX + transactionId;
+    }
+
+    /**
+     * Starts a purchase order workflow for a single order.
+     * <p>
+     * The requesting host and user are read from the MDC context populated by
+     * {@link RequestIdFilters}.
+     * <p>
+     * Workflow ids are never reused, so if a workflow was already started for the
+     * transaction (a retried request) the existing workflow is returned instead of
+     * starting a duplicate.
+     * <p>
+     * With update-with-start enabled, the call waits for the order record and
+     * the response carries its order number and status.
+     *
+     * @param transactionId the transaction id which identifies the order
+     * @param request       the order purchase request
+     * @return {@link WorkflowInitiationResponse} with the transaction id
+     * @throws AdmissionRejectedException if the order is shed by the
+     *                                    {@link AdmissionController}
+     */
+    public WorkflowInitiationResponse startPurchase(UUID transactionId, OrderPurchaseRequest request) {
+        return startPurchase(transactionId, request, admissionController.acquire());
+    }
+
+    /**
+     * Starts a purchase order workflow for a single order already admitted.
+     *
+     * @param transactionId the transaction id which identifies the order
+     * @param request       the order purchase request
+     * @param permit        the admission of the start, released if unused
+     * @return {@link WorkflowInitiationResponse} with the transaction id
+     */
+    private WorkflowInitiationResponse startPurchase(UUID transactionId, OrderPurchaseRequest request,
+            AdmissionController.Permit permit) {
+        return start(transactionId, request, permit).join();
+    }
+
+    /**
+     * Starts a purchase order workflow for a single order already admitted,
+     * without waiting for the order on the calling thread.
+     *
+     * @param transactionId the transaction id which identifies the order
+     * @param request       the order purchase request
+     * @param permit        the admission of the start, released if unused
+     * @return a future completed with the {@link WorkflowInitiationResponse}
+     */
+    private CompletableFuture<WorkflowInitiationResponse> start(UUID transactionId, OrderPurchaseRequest request,
+            AdmissionController.Permit permit) {
+        try {
+            if (updateWithStart) {
+                return startPurchaseAndAwaitOrder(transactionId, request, permit);
+            }
+            return CompletableFuture.completedFuture(startWorkflow(transactionId, request, permit));
+        } finally {
+            permit.release();
+        }
+    }
+
+    /**
+     * Starts a purchase order workflow without waiting for the order.
+     *
+     * @param transactionId the transaction id which identifies the order
+     * @param request       the order purchase request
+     * @param permit        the admission of the start
+     * @return {@link WorkflowInitiationResponse} with the transaction id
+     */
+    private WorkflowInitiationResponse startWorkflow(UUID transactionId, OrderPurchaseRequest request,
+            AdmissionController.Permit permit) {
+        PurchaseOrderWorkflow workflow = newWorkflowStub(transactionId, eagerStart);
+        PurchaseOrderContext ctx = newContext(transactionId, request);
+
+        permit.run(() -> {
+            try {
+                // Recorded first, an eager start may run the first task before returning
+                firstWorkflowTask.started(workflowId(transactionId), eagerStart);
+                return WorkflowClient.start(workflow::placeOrder, ctx);
+            } catch (WorkflowExecutionAlreadyStarted e) {
+                log.infof("Order purchase workflow with TX id %s was already started", transactionId);
+                return e.getExecution();
+            }
+        });
+        return WorkflowInitiationResponse.builder()
+                .transactionId(transactionId)
+                .build();
+    }
+
+    /**
+     * Starts a purchase order workflow with the {@code awaitOrderCreated} update
+     * and waits for the order record.
+     * <p>
+     * A workflow still running for the transaction (a retried request) receives
+     * the update instead of a duplicate start. If the workflow already closed,
+     * the response carries the order number and the status read from the
+     * workflow. If the update fails or the order is not created within the
+     * timeout, the workflow still runs, so the response only carries the
+     * transaction id to poll the status with.
+     * <p>
+     * Only the start blocks the calling thread, the order is awaited on the
+     * future of the update.
+     *
+     * @param transactionId the transaction id which identifies the order
+     * @param request       the order purchase request
+     * @param permit        the admission of the start
+     * @return a future completed with the {@link WorkflowInitiationResponse}
+     *         carrying the order number and status, never exceptionally
+     */
+    private CompletableFuture<WorkflowInitiationResponse> startPurchaseAndAwaitOrder(UUID transactionId,
+            OrderPurchaseRequest request, AdmissionController.Permit permit) {
+        PurchaseOrderWorkflow workflow = newWorkflowStub(transactionId, false);
+        PurchaseOrderContext ctx = newContext(transactionId, request);
+        UpdateWithStartWorkflowOperation<CreateOrderResponse> awaitOrder = UpdateWithStartWorkflowOperation
+                .newBuilder(workflow::awaitOrderCreated)
+                .setWaitForStage(WorkflowUpdateStage.ACCEPTED)
+                .build();
+
+        WorkflowUpdateHandle<CreateOrderResponse> handle;
+        try {
+            // Admission only covers the start, not the order creation
+            handle = permit.run(() -> WorkflowClient.updateWithStart(workflow::placeOrder, ctx, awaitOrder));
+        } catch (WorkflowExecutionAlreadyStarted e) {
+            log.infof("Order purchase workflow with TX id %s already closed", transactionId);
+            return CompletableFuture.completedFuture(currentOrder(transactionId));
+        } catch (WorkflowUpdateException e) {
+            log.warnf(e, "Unable to await order with TX id %s", transactionId);
+            return CompletableFuture.completedFuture(WorkflowInitiationResponse.builder()
+                    .transactionId(transactionId)
+                    .build());
+        }
+
+        return handle.getResultAsync()
+                .orTimeout(updateWithStartTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((order, e) -> e == null
+                        ? WorkflowInitiationResponse.builder()
+                                .transactionId(transactionId)
+                                .orderNumber(order.getOrderNumber())
+                                .status(order.getStatus())
+                                .build()
+                        : orderNotAwaited(transactionId, e));
+    }
+
+    /**
+     * Returns the response of an order which could not be awaited.
+     *
+     * @param transactionId the transaction id of the order
+     * @param e             the failure of the update
+     * @return {@link WorkflowInitiationResponse} with the failure of an order
+     *         which was not created, otherwise only the transaction id
+     */
+    private WorkflowInitiationResponse orderNotAwaited(UUID transactionId, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof TimeoutException) {
+            log.warnf("Order with TX id %s not created within %s", transactionId, updateWithStartTimeout);
+            return WorkflowInitiationResponse.builder()
+                    .transactionId(transactionId)
+                    .build();
+        }
+        ApplicationFailure failure = ExceptionUtils.throwableOfType(cause, ApplicationFailure.class);
+        if (failure == null || !PurchaseOrderWorkflow.ORDER_NOT_CREATED.equals(failure.getType())) {
+            log.warnf(cause, "Unable to await order with TX id %s", transactionId);
+            return WorkflowInitiationResponse.builder()
+                    .transactionId(transactionId)
+                    .build();
+        }
+        return WorkflowInitiationResponse.builder()
+                .transactionId(transactionId)
+                .status(OrderStatus.FAILED)
+                .error(failure.getOriginalMessage())
+                .build();
+    }
+
+    /**
+     * Returns the order of a workflow which already closed, from its status.
+     *
+     * @param transactionId the transaction id of the order
+     * @return {@link WorkflowInitiationResponse} with the order number and status
+     */
+    private WorkflowInitiationResponse currentOrder(UUID transactionId) {
+        PurchaseOrderStatus current = getStatus(transactionId);
+        return WorkflowInitiationResponse.builder()
+                .transactionId(transactionId)
+                .orderNumber(current.getOrderNumber())
+                .status(switch (current.getStep()) {
+                    case COMPLETED -> OrderStatus.COMPLETED;
+                    case FAILED -> OrderStatus.FAILED;
+                    default -> OrderStatus.PENDING;
+                })
+                .build();
+    }
+
+    /**
+     * Creates the stub of the purchase order workflow of a transaction.
+     * <p>
+     * A start of a workflow still running for the transaction resolves to that
+     * workflow, a start of a closed one is rejected.
+     *
+     * @param transactionId the transaction id of the order
+     * @param eager         whether to request an eager start
+     * @return the workflow stub
+     */
+    private PurchaseOrderWorkflow newWorkflowStub(UUID transactionId, boolean eager) {
+        WorkflowOptions.Builder options = WorkflowOptions.newBuilder()
+                .setWorkflowId(workflowId(transactionId))
+                .setWorkflowIdReusePolicy(WorkflowIdReusePolicy.WORKFLOW_ID_REUSE_POLICY_REJECT_DUPLICATE)
+                .setDisableEagerExecution(!eager)
+                .setTaskQueue(taskQueue);
+        if (updateWithStart) {
+            // Required by update-with-start, a retried request updates the running workflow
+            options.setWorkflowIdConflictPolicy(WorkflowIdConflictPolicy.WORKFLOW_ID_CONFLICT_POLICY_USE_EXISTING);
+        }
+        return client.newWorkflowStub(PurchaseOrderWorkflow.class, options.build());
+    }
+
+    /**
+     * Creates the context of the workflow of an order.
+     *
+     * @param transactionId the transaction id which identifies the order
+     * @param request       the order purchase request
+     * @return {@link PurchaseOrderContext}
+     */
+    private PurchaseOrderContext newContext(UUID transactionId, OrderPurchaseRequest request) {
+        return PurchaseOrderContext.builder()
+                .transactionId(transactionId)
+                .customerEmail(request.getCustomerEmail())
+                .creditCard(request.getCreditCard())
+                .products(request.getProducts())
+                .requestDate(ZonedDateTime.now())
+                .requestedByHost(MDC.get(RequestIdFilters.REQUEST_IP_MDC_KEY))
+                .requestedByUser(MDC.get(RequestIdFilters.REQUEST_USER_MDC_KEY))
+                .build();
+    }
+
+    /**
+     * Starts a purchase order workflow for a request carrying an idempotency key.
+     * <p>
+     * The transaction id is derived from the caller, the key and the body, and
+     * replaces the request id in the MDC context. Repeated keys are answered
+     * from the cache. On a cache miss the workflow is started, and a workflow
+     * already started by an earlier attempt resolves to the same response.
+     *
+     * @param idempotencyKey the idempotency key sent by the client
+     * @param request        the order purchase request
+     * @return {@link WorkflowInitiationResponse} with the transaction id
+     * @throws IdempotencyKeyReusedException if the key was recently used with a
+     *                                       different request
+     */
+    public WorkflowInitiationResponse startIdempotentPurchase(String idempotencyKey, OrderPurchaseRequest request) {
+        String caller = MDC.get(RequestIdFilters.REQUEST_USER_MDC_KEY);
+        String hash = requestHash(request);
+        UUID transactionId = RequestIdFilters.requestIdForIdempotencyKey(caller, idempotencyKey, hash);
+        MDC.put(RequestIdFilters.REQUEST_ID_MDC_KEY, transactionId.toString());
+        return idempotencyCache.<String, IdempotentResponse<WorkflowInitiationResponse>>get(
+                cacheKey(caller, idempotencyKey),
+                key -> new IdempotentResponse<>(hash, startPurchase(transactionId, request)))
+                .await().indefinitely()
+                .responseFor(idempotencyKey, hash);
+    }
+
+    /**
+     * Non-blocking variant of
+     * {@link #startIdempotentPurchase(String, OrderPurchaseRequest)}.
+     *
+     * @param idempotencyKey the idempotency key sent by the client
+     * @param request        the order purchase request
+     * @return a future completed with the {@link WorkflowInitiationResponse}
+     */
+    public CompletableFuture<WorkflowInitiationResponse> startIdempotentPurchaseAsync(String idempotencyKey,
+            OrderPurchaseRequest request) {
+        String caller = MDC.get(RequestIdFilters.REQUEST_USER_MDC_KEY);
+        String hash = requestHash(request);
+        UUID transactionId = RequestIdFilters.requestIdForIdempotencyKey(caller, idempotencyKey, hash);
+        MDC.put(RequestIdFilters.REQUEST_ID_MDC_KEY, transactionId.toString());
+        return idempotencyCache.<String, IdempotentResponse<WorkflowInitiationResponse>>getAsync(
+                cacheKey(caller, idempotencyKey),
+                key -> Uni.createFrom().completionStage(() -> startPurchaseAsync(transactionId, request))
+                        .map(response -> new IdempotentResponse<>(hash, response)))
+                .map(cached -> cached.responseFor(idempotencyKey, hash))
+                .subscribeAsCompletionStage();
+    }
+
+    /**
+     * Starts a purchase order workflow for a single order without blocking the
+     * calling thread.
+     * <p>
+     * The MDC context of the caller is captured and restored on the start pool
+     * so the request information still flows into the workflow.
+     * <p>
+     * The start is admitted on the calling thread before it is queued, so an
+     * order over the admission limit or beyond the queue is rejected at once
+     * instead of waiting in the queue.
+     *
+     * @param transactionId the transaction id which identifies the order
+     * @param request       the order purchase request
+     * @return a future completed with the {@link WorkflowInitiationResponse} once
+     *         the workflow has been started, or with update-with-start once
+     *         the order was awaited
+     * @throws AdmissionRejectedException if the order is shed by the
+     *                                    {@link AdmissionController} or the
+     *                                    start queue is full
+     */
+    public CompletableFuture<WorkflowInitiationResponse> startPurchaseAsync(UUID transactionId,
+            OrderPurchaseRequest request) {
+        AdmissionController.Permit permit = admissionController.acquire();
+        Map<String, String> mdcContext = MDC.copy();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    mdcContext.forEach(MDC::put);
+                    return start(transactionId, request, permit);
+                } finally {
+                    MDC.clear();
+                }
+            }, startExecutor).thenCompose(Function.identity());
+        } catch (RejectedExecutionException e) {
+            permit.release();
+            throw admissionController.queueFull();
+        }
+    }
+
+    /**
+     * Starts one purchase order workflow per order in the batch.
+     * <p>
+     * Every order gets its own transaction id. A failure to start one order does
+     * not fail the others, instead the error is reported in the response of that
+     * order. Responses are returned in the same order as the requests.
+     *
+     * @param requests the order purchase requests
+     * @return one {@link WorkflowInitiationResponse} per request
+     */
+    public List<WorkflowInitiationResponse> startPurchases(List<OrderPurchaseRequest> requests) {
+        return startPurchases(requests, index -> IdGenerator.newTransactionId());
+    }
+
+    /**
+     * Starts one purchase order workflow per order in a batch carrying an
+     * idempotency key.
+     * <p>
+     * The transaction id of every order is derived from the caller, the key, the
+     * body of the whole batch and the position of the order, so a retried batch
+     * resolves to the workflows already started. Repeated keys are answered from
+     * the cache, unless an order of the batch failed to start, so a retry starts
+     * the missing orders.
+     *
+     * @param idempotencyKey the idempotency key sent by the client
+     * @param requests       the order purchase requests
+     * @return one {@link WorkflowInitiationResponse} per request
+     * @throws IdempotencyKeyReusedException if the key was recently used with a
+     *                                       different request
+     */
+    public List<WorkflowInitiationResponse> startIdempotentPurchases(String idempotencyKey,
+            List<OrderPurchaseRequest> requests) {
+        String caller = MDC.get(RequestIdFilters.REQUEST_USER_MDC_KEY);
+        String hash = requestHash(requests);
+        String cacheKey = cacheKey(caller, idempotencyKey);
+        List<WorkflowInitiationResponse> responses = idempotencyCache
+                .<String, IdempotentResponse<List<WorkflowInitiationResponse>>>get(cacheKey,
+                        key -> new IdempotentResponse<>(hash, startPurchases(requests,
+                                index -> RequestIdFilters.requestIdForIdempotencyKey(caller,
+                                        idempotencyKey + "#" + index, hash))))
+                .await().indefinitely()
+                .responseFor(idempotencyKey, hash);
+        if (responses.stream().anyMatch(response -> response.getError() != null)) {
+            idempotencyCache.invalidate(cacheKey).await().indefinitely();
+        }
+        return responses;
+    }
+
+    /**
+     * Starts one purchase order workflow per order in the batch on the start
+     * pool.
+     *
+     * @param requests       the order purchase requests
+     * @param transactionIds the transaction id of the order at each position
+     * @return one {@link WorkflowInitiationResponse} per request
+     */
+    private List<WorkflowInitiationResponse> startPurchases(List<OrderPurchaseRequest> requests,
+            IntFunction<UUID> transactionIds) {
+        log.infof("Initiating batch of %d order purchase requests", requests.size());
+
+        // The MDC is thread bound so capture it for the batch threads
+        Map<String, String> mdcContext = MDC.copy();
+
+        List<CompletableFuture<WorkflowInitiationResponse>> starts = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            UUID transactionId = transactionIds.apply(i);
+            OrderPurchaseRequest request = requests.get(i);
+            try {
+                starts.add(CompletableFuture.supplyAsync(
+                        () -> startBatchPurchase(mdcContext, transactionId, request), startExecutor));
+            } catch (RejectedExecutionException e) {
+                log.warnf("Start queue full, order purchase with TX id %s not started", transactionId);
+                starts.add(CompletableFuture.completedFuture(WorkflowInitiationResponse.builder()
+                        .transactionId(transactionId)
+                        .error(admissionController.queueFull().getMessage())
+                        .build()));
+            }
+        }
+
+        return starts.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    /**
+     * Starts a single order of a batch on a batch thread, reporting any failure
+     * in the response instead of throwing.
+     *
+     * @param mdcContext    the MDC context of the HTTP request
+     * @param transactionId the transaction id of the order
+     * @param request       the order purchase request
+     * @return {@link WorkflowInitiationResponse} for the order
+     */
+    private WorkflowInitiationResponse startBatchPurchase(Map<String, String> mdcContext, UUID transactionId,
+            OrderPurchaseRequest request) {
+        try {
+            mdcContext.forEach(MDC::put);
+            MDC.put(RequestIdFilters.REQUEST_ID_MDC_KEY, transactionId.toString());
+            // Admitted on the pool thread, so a batch holds at most one permit per pool thread
+            AdmissionController.Permit permit = admissionController.acquire();
+            try {
+                return startWorkflow(transactionId, request, permit);
+            } finally {
+                permit.release();
+            }
+        } catch (Exception e) {
+            // Logged by purchaseFailure, the MDC carries the TX id
+            return WorkflowInitiationResponse.builder()
+                    .transactionId(transactionId)
+                    .error(purchaseFailure(e).getMessage())
+                    .build();
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    /**
+     * Converts a failure to start a purchase into the exception returned to the
+     * client, or reported for an order of a batch. Orders shed by the admission
+     * controller keep their 429/503 status and reused idempotency keys their 422
+     * status. Any other failure is logged and hidden behind a generic message.
+     *
+     * @param e the failure
+     * @return the exception to throw
+     */
+    static RuntimeException purchaseFailure(Throwable e) {
+        AdmissionRejectedException rejected = ExceptionUtils.throwableOfType(e, AdmissionRejectedException.class);
+        if (rejected != null) {
+            log.warnf("Order purchase request rejected: %s", rejected.getMessage());
+            return rejected;
+        }
+        IdempotencyKeyReusedException reused = ExceptionUtils.throwableOfType(e, IdempotencyKeyReusedException.class);
+        if (reused != null) {
+            log.warnf("Order purchase request rejected: %s", reused.getMessage());
+            return reused;
+        }
+        log.error("Error processing order purchase request", e);
+        return new RuntimeException("Error processing order purchase request", e);
+    }
+
+    /**
+     * Returns the key of the {@code idempotency-keys} cache for an idempotency
+     * key, namespaced by the caller.
+     *
+     * @param caller         the user sending the request
+     * @param idempotencyKey the idempotency key sent by the client
+     * @return the cache key
+     */
+    private static String cacheKey(String caller, String idempotencyKey) {
+        return caller + "\n" + idempotencyKey;
+    }
+
+    /**
+     * Hashes the JSON of a request body, so a reused idempotency key can be
+     * told from a retry.
+     *
+     * @param request the request body
+     * @return the SHA-256 of the body in hex
+     */
+    private String requestHash(Object request) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to hash the order purchase request", e);
+        }
+    }
+
+    /**
+     * Returns the current status of an order.
+     * <p>
+     * The status is read with the workflow {@code getStatus} query and cached in
+     * the short lived {@code order-status} cache so frequent polling does not
+     * reach Temporal on every call. If the query cannot be answered, for example
+     * because the workflow has closed and no worker can replay it, the status of
+     * a closed workflow is derived from the workflow execution description
+     * instead. The step of a running workflow is unknown without the query, so
+     * the failure is reported rather than cached.
+     *
+     * @param transactionId the transaction id of the order
+     * @return {@link PurchaseOrderStatus}
+     * @throws NotFoundException           if there is no workflow for the
+     *                                     transaction
+     * @throws ServiceUnavailableException if the workflow is running and its
+     *                                     status cannot be queried
+     */
+    @CacheResult(cacheName = "order-status")
+    public PurchaseOrderStatus getStatus(UUID transactionId) {
+        String workflowId = workflowId(transactionId);
+        try {
+            PurchaseOrderStatus status = client.newWorkflowStub(PurchaseOrderWorkflow.class, workflowId).getStatus();
+            if (status != null) {
+                return status;
+            }
+            // Queried before the workflow processed its first task
+            return PurchaseOrderStatus.builder()
+                    .transactionId(transactionId)
+                    .step(PurchaseOrderStep.RECEIVED)
+                    .build();
+        } catch (WorkflowNotFoundException e) {
+            throw new NotFoundException("No order found for TX id %s".formatted(transactionId));
+        } catch (WorkflowQueryException e) {
+            log.warnf("Unable to query order status for TX id %s, falling back to describe", transactionId);
+            return describeStatus(transactionId);
+        }
+    }
+
+    /**
+     * Derives the status of a closed order from the execution status of its
+     * workflow.
+     *
+     * @param transactionId the transaction id of the order
+     * @return {@link PurchaseOrderStatus} without order details
+     * @throws NotFoundException           if there is no workflow for the
+     *                                     transaction
+     * @throws ServiceUnavailableException if the workflow is still running
+     */
+    private PurchaseOrderStatus describeStatus(UUID transactionId) {
+        WorkflowExecutionStatus executionStatus;
+        try {
+            executionStatus = client.getWorkflowServiceStubs().blockingStub()
+                    .describeWorkflowExecution(DescribeWorkflowExecutionRequest.newBuilder()
+                            .setNamespace(client.getOptions().getNamespace())
+                            .setExecution(WorkflowExecution.newBuilder().setWorkflowId(workflowId(transactionId)))
+                            .build())
+                    .getWorkflowExecutionInfo()
+                    .getStatus();
+        } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() == Status.Code.NOT_FOUND) {
+                throw new NotFoundException("No order found for TX id %s".formatted(transactionId));
+            }
+            throw e;
+        }
+
+        PurchaseOrderStep step = switch (executionStatus) {
+            case WORKFLOW_EXECUTION_STATUS_COMPLETED -> PurchaseOrderStep.COMPLETED;
+            case WORKFLOW_EXECUTION_STATUS_RUNNING, WORKFLOW_EXECUTION_STATUS_CONTINUED_AS_NEW ->
+                throw new ServiceUnavailableException(
+                        "Status of the order with TX id %s is not available, retry later".formatted(transactionId));
+            default -> PurchaseOrderStep.FAILED;
+        };
+        return PurchaseOrderStatus.builder()
+                .transactionId(transactionId)
+                .step(step)
+                .build();
+    }
+}
@@ -0,0 +1,247 @@
+package com.melloware.petstore.order.gateway.admission;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.melloware.petstore.common.concurrency.AdaptiveConcurrencyLimit;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Admission controller in front of the purchase order workflow starts.
+ * <p>
+ * Starts are gated by an {@link AdaptiveConcurrencyLimit} which shrinks when
+ * starts become slow or Temporal reports overload and grows back while starts
+ * are fast. Orders are shed with:
+ * <ul>
+ * <li><b>429</b> when the number of starts in flight is at the limit.</li>
+ * <li><b>503</b> when the moving average of the start latency is above
+ * {@code petstore.gateway.admission.max-start-latency}. Starts are let through
+ * again once no start completed for a {@code retry-after} interval, so the
+ * average can recover.</li>
+ * </ul>
+ * Starts handed to a thread pool take their {@link Permit} before they are
+ * queued, so queued starts count against the limit and a full queue is answered
+ * with <b>429</b> through {@link #queueFull()}.
+ * <p>
+ * The limit, starts in flight, average latency and rejections are exported as
+ * Micrometer metrics under {@code petstore.gateway.admission}.
+ */
+@ApplicationScoped
+public class AdmissionController {
+
+    // Weight of the newest sample in the start latency moving average
+    private static final double LATENCY_EWMA_ALPHA = 0.2;
+
+    // gRPC codes returned by the Temporal frontend when it is overloaded
+    private static final Set<Status.Code> OVERLOAD_CODES = EnumSet.of(Status.Code.RESOURCE_EXHAUSTED,
+            Status.Code.UNAVAILABLE, Status.Code.DEADLINE_EXCEEDED);
+
+    @ConfigProperty(name = "petstore.gateway.admission.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "petstore.gateway.admission.initial-limit", defaultValue = "20")
+    int initialLimit;
+
+    @ConfigProperty(name = "petstore.gateway.admission.min-limit", defaultValue = "4")
+    int minLimit;
+
+    @ConfigProperty(name = "petstore.gateway.admission.max-limit", defaultValue = "200")
+    int maxLimit;
+
+    @ConfigProperty(name = "petstore.gateway.admission.backoff-ratio", defaultValue = "0.9")
+    double backoffRatio;
+
+    @ConfigProperty(name = "petstore.gateway.admission.latency-threshold", defaultValue = "500ms")
+    Duration latencyThreshold;
+
+    @ConfigProperty(name = "petstore.gateway.admission.max-start-latency", defaultValue = "2s")
+    Duration maxStartLatency;
+
+    @ConfigProperty(name = "petstore.gateway.admission.retry-after", defaultValue = "1s")
+    Duration retryAfter;
+
+    @Inject
+    MeterRegistry registry;
+
+    private AdaptiveConcurrencyLimit limit;
+    private Counter throttled;
+    private Counter shed;
+    private Counter queued;
+    private volatile double startLatencyEwmaNanos;
+    private volatile long lastSampleNanos = System.nanoTime();
+
+    @PostConstruct
+    void init() {
+        limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, backoffRatio, latencyThreshold);
+
+        Gauge.builder("petstore.gateway.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive limit of concurrent workflow starts")
+                .register(registry);
+        Gauge.builder("petstore.gateway.admission.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Workflow starts currently in flight")
+                .register(registry);
+        Gauge.builder("petstore.gateway.admission.start.latency", this, c -> c.startLatencyEwmaNanos)
+                .description("Moving average of the workflow start latency")
+                .baseUnit("nanoseconds")
+                .register(registry);
+        throttled = Counter.builder("petstore.gateway.admission.rejected")
+                .tag("reason", "limit")
+                .description("Orders rejected because the concurrency limit was reached")
+                .register(registry);
+        shed = Counter.builder("petstore.gateway.admission.rejected")
+                .tag("reason", "latency")
+                .description("Orders shed because workflow starts are too slow")
+                .register(registry);
+        queued = Counter.builder("petstore.gateway.admission.rejected")
+                .tag("reason", "queue")
+                .description("Orders rejected because the workflow start queue was full")
+                .register(registry);
+    }
+
+    /**
+     * Runs a workflow start if it is admitted.
+     *
+     * @param start the workflow start
+     * @param <T>   the result type of the start
+     * @return the result of the start
+     * @throws AdmissionRejectedException if the start is not admitted
+     */
+    public <T> T admit(Supplier<T> start) {
+        return acquire().run(start);
+    }
+
+    /**
+     * Admits a workflow start to be run later, typically on a thread pool. The
+     * permit counts as a start in flight until it is run or released.
+     *
+     * @return the {@link Permit} of the start
+     * @throws AdmissionRejectedException if the start is not admitted
+     */
+    public Permit acquire() {
+        if (!enabled) {
+            return new Permit(false);
+        }
+
+        if (isShedding()) {
+            shed.increment();
+            throw new AdmissionRejectedException(Response.Status.SERVICE_UNAVAILABLE, retryAfter,
+                    "Order intake is overloaded, retry later");
+        }
+        if (!limit.tryAcquire()) {
+            throttled.increment();
+            throw new AdmissionRejectedException(Response.Status.TOO_MANY_REQUESTS, retryAfter,
+                    "Too many orders in flight, retry later");
+        }
+        return new Permit(true);
+    }
+
+    /**
+     * Returns the rejection of an admitted start which could not be queued
+     * because the start pool is full.
+     *
+     * @return the exception to throw, with status 429
+     */
+    public AdmissionRejectedException queueFull() {
+        queued.increment();
+        return new AdmissionRejectedException(Response.Status.TOO_MANY_REQUESTS, retryAfter,
+                "Too many orders waiting to start, retry later");
+    }
+
+    /**
+     * Admission of a single workflow start, run once or released.
+     */
+    public final class Permit {
+
+        private final boolean limited;
+        private final AtomicBoolean used = new AtomicBoolean();
+
+        private Permit(boolean limited) {
+            this.limited = limited;
+        }
+
+        /**
+         * Runs the workflow start, recording its latency and outcome in the
+         * limit.
+         *
+         * @param start the workflow start
+         * @param <T>   the result type of the start
+         * @return the result of the start
+         * @throws IllegalStateException if the permit was already used
+         */
+        public <T> T run(Supplier<T> start) {
+            if (!used.compareAndSet(false, true)) {
+                throw new IllegalStateException("Admission permit already used");
+            }
+            if (!limited) {
+                return start.get();
+            }
+
+            long startNanos = System.nanoTime();
+            try {
+                T result = start.get();
+                long latencyNanos = System.nanoTime() - startNanos;
+                recordLatency(latencyNanos);
+                limit.onSuccess(latencyNanos);
+                return result;
+            } catch (RuntimeException e) {
+                if (isOverload(e)) {
+                    recordLatency(System.nanoTime() - startNanos);
+                    limit.onDropped();
+                } else {
+                    limit.onIgnore();
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Gives the permit back without running a start, for example when the
+         * start could not be queued. Does nothing once the permit was run.
+         */
+        public void release() {
+            if (used.compareAndSet(false, true) && limited) {
+                limit.onIgnore();
+            }
+        }
+    }
+
+    /**
+     * Returns whether starts are currently shed because their average latency is
+     * too high. Starts are admitted again once no sample was recorded for a retry
+     * interval, so the average is refreshed.
+     *
+     * @return {@code true} if the start must be shed
+     */
+    private boolean isShedding() {
+        return startLatencyEwmaNanos > maxStartLatency.toNanos()
+                && System.nanoTime() - lastSampleNanos < retryAfter.toNanos();
+    }
+
+    private synchronized void recordLatency(long latencyNanos) {
+        startLatencyEwmaNanos = startLatencyEwmaNanos == 0
+                ? latencyNanos
+                : LATENCY_EWMA_ALPHA * latencyNanos + (1 - LATENCY_EWMA_ALPHA) * startLatencyEwmaNanos;
+        lastSampleNanos = System.nanoTime();
+    }
+
+    private static boolean isOverload(RuntimeException e) {
+        StatusRuntimeException grpcException = ExceptionUtils.throwableOfType(e, StatusRuntimeException.class);
+        return grpcException != null && OVERLOAD_CODES.contains(grpcException.getStatus().getCode());
+    }
+}
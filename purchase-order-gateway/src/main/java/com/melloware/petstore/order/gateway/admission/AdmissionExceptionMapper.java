@@ -0,0 +1,24 @@
+package com.melloware.petstore.order.gateway.admission;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+
+/**
+ * Maps {@link AdmissionRejectedException} to its HTTP status with a
+ * {@code Retry-After} header in seconds.
+ */
+public class AdmissionExceptionMapper {
+
+    @ServerExceptionMapper
+    public Response mapAdmissionRejected(AdmissionRejectedException e) {
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return Response.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                .type(MediaType.TEXT_PLAIN)
+                .entity(e.getMessage())
+                .build();
+    }
+}
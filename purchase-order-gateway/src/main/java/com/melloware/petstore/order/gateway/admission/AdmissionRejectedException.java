@@ -0,0 +1,31 @@
+package com.melloware.petstore.order.gateway.admission;
+
+import java.time.Duration;
+
+import jakarta.ws.rs.core.Response;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the {@link AdmissionController} sheds an order instead of
+ * starting its workflow.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+    /**
+     * HTTP status returned to the client, 429 or 503
+     */
+    private final Response.Status status;
+
+    /**
+     * How long the client should wait before retrying
+     */
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(Response.Status status, Duration retryAfter, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+}
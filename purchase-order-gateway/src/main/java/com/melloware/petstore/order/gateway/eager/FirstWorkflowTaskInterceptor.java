@@ -0,0 +1,99 @@
+package com.melloware.petstore.order.gateway.eager;
+
+import java.time.Duration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.arc.Unremovable;
+import io.temporal.common.interceptors.WorkerInterceptorBase;
+import io.temporal.common.interceptors.WorkflowInboundCallsInterceptor;
+import io.temporal.common.interceptors.WorkflowInboundCallsInterceptorBase;
+import io.temporal.workflow.Workflow;
+
+/**
+ * Worker interceptor timing how long a purchase workflow started by this
+ * gateway waits for its first workflow task, to compare eager starts with
+ * starts dispatched through a poll.
+ * <p>
+ * The gateway records every start with {@link #started(String, boolean)} and
+ * the first execution of the workflow on this worker completes the sample of
+ * the {@code petstore.gateway.workflow.first.task} timer, tagged
+ * {@code eager=true|false} after whether an eager start was requested. Replays
+ * are not timed, and starts whose first task runs on another gateway expire
+ * after {@value #PENDING_EXPIRY_SECONDS} seconds. At most
+ * {@value #MAX_PENDING} pending starts are kept.
+ */
+@Singleton
+@Unremovable
+public class FirstWorkflowTaskInterceptor extends WorkerInterceptorBase {
+
+    static final long PENDING_EXPIRY_SECONDS = 60;
+
+    static final long MAX_PENDING = 10_000;
+
+    @Inject
+    MeterRegistry registry;
+
+    // Start time and eagerness by workflow id, until the first task
+    private final Cache<String, PendingStart> pending = Caffeine.newBuilder()
+            .maximumSize(MAX_PENDING)
+            .expireAfterWrite(Duration.ofSeconds(PENDING_EXPIRY_SECONDS))
+            .build();
+    private Timer eagerTimer;
+    private Timer polledTimer;
+
+    @PostConstruct
+    void init() {
+        eagerTimer = timer(true);
+        polledTimer = timer(false);
+    }
+
+    /**
+     * Records the start of a workflow by the gateway.
+     *
+     * @param workflowId the id of the workflow
+     * @param eager      whether an eager start was requested
+     */
+    public void started(String workflowId, boolean eager) {
+        pending.put(workflowId, new PendingStart(System.nanoTime(), eager));
+    }
+
+    @Override
+    public WorkflowInboundCallsInterceptor interceptWorkflow(WorkflowInboundCallsInterceptor next) {
+        return new WorkflowInboundCallsInterceptorBase(next) {
+
+            @Override
+            public WorkflowOutput execute(WorkflowInput input) {
+                if (!Workflow.isReplaying()) {
+                    firstTask(Workflow.getInfo().getWorkflowId());
+                }
+                return super.execute(input);
+            }
+        };
+    }
+
+    private void firstTask(String workflowId) {
+        PendingStart start = pending.asMap().remove(workflowId);
+        if (start != null) {
+            (start.eager() ? eagerTimer : polledTimer).record(Duration.ofNanos(System.nanoTime() - start.nanos()));
+        }
+    }
+
+    private Timer timer(boolean eager) {
+        return Timer.builder("petstore.gateway.workflow.first.task")
+                .tag("eager", String.valueOf(eager))
+                .description("Time from the workflow start request to its first workflow task on this gateway")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private record PendingStart(long nanos, boolean eager) {
+    }
+}
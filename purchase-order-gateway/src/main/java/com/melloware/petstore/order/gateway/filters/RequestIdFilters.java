@@ -1,6 +1,7 @@
 package com.melloware.petstore.order.gateway.filters;
 
 import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -12,6 +13,8 @@ import org.jboss.logmanager.MDC;
 import org.jboss.resteasy.reactive.server.ServerRequestFilter;
 import org.jboss.resteasy.reactive.server.ServerResponseFilter;
 
+import com.melloware.petstore.common.utils.IdGenerator;
+
 import io.quarkus.security.identity.SecurityIdentity;
 import io.vertx.ext.web.RoutingContext;
 
@@ -45,6 +48,11 @@ public class RequestIdFilters {
      */
     public static final String REQUEST_HOSTNAME_MDC_KEY = "X-Hostname";
 
+    /**
+     * Header clients send to safely retry a request.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     /**
      * Injects the Vert.x RoutingContext to access the request object.
      */
@@ -60,6 +68,10 @@ public class RequestIdFilters {
     /**
      * Filter method executed before processing the incoming request. Adds
      * request ID and IP address to the MDC context.
+     * <p>
+     * Requests carrying an {@value #IDEMPOTENCY_KEY_HEADER} header get their
+     * request ID replaced once the body is read, see
+     * {@link #requestIdForIdempotencyKey(String, String, String)}.
      *
      * @param crc ContainerRequestContext provided by JAX-RS runtime.
      */
@@ -67,7 +79,7 @@ public class RequestIdFilters {
     public void addRequestInformation(ContainerRequestContext crc) {
 
         // Generate a unique request ID
-        String requestId = UUID.randomUUID().toString();
+        String requestId = IdGenerator.newRequestId();
 
         // Retrieve IP address from the incoming request
         String ipAddress = request.request().remoteAddress().hostAddress();
@@ -95,6 +107,24 @@ public class RequestIdFilters {
         MDC.clear();
     }
 
+    /**
+     * Derives a stable request ID from an idempotency key so that every retry of
+     * the same request maps to the same transaction and workflow ID.
+     * <p>
+     * The key is namespaced by the caller and by the hash of the request body,
+     * so neither another caller nor another body sent with the same key can
+     * reach the transaction of the original request.
+     *
+     * @param caller         the user sending the request
+     * @param idempotencyKey the idempotency key sent by the client
+     * @param requestHash    the hash of the request body
+     * @return a name based UUID for the key
+     */
+    public static UUID requestIdForIdempotencyKey(String caller, String idempotencyKey, String requestHash) {
+        return UUID.nameUUIDFromBytes(String.join("\n", caller, idempotencyKey, requestHash)
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * Retrieves the username from the provided SecurityIdentity.
      * If the username or the security identity itself is null or empty,
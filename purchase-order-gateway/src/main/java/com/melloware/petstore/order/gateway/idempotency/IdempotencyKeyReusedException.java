@@ -0,0 +1,17 @@
+package com.melloware.petstore.order.gateway.idempotency;
+
+import jakarta.ws.rs.ClientErrorException;
+
+/**
+ * Thrown when a request reuses the idempotency key of an earlier request with
+ * a different body, answered with 422 Unprocessable Entity.
+ */
+public class IdempotencyKeyReusedException extends ClientErrorException {
+
+    private static final int UNPROCESSABLE_ENTITY = 422;
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super("Idempotency key %s was already used with a different request".formatted(idempotencyKey),
+                UNPROCESSABLE_ENTITY);
+    }
+}
@@ -0,0 +1,32 @@
+package com.melloware.petstore.order.gateway.idempotency;
+
+import com.melloware.petstore.order.gateway.filters.RequestIdFilters;
+
+/**
+ * Response to a request carrying an idempotency key, kept in the
+ * {@code idempotency-keys} cache with the hash of the request body so a
+ * request reusing the key with another body is rejected instead of answered.
+ *
+ * @param requestHash the hash of the request body, see
+ *                    {@link RequestIdFilters#requestIdForIdempotencyKey(String, String, String)}
+ * @param response    the response to the request
+ * @param <T>         the type of the response
+ */
+public record IdempotentResponse<T>(String requestHash, T response) {
+
+    /**
+     * Returns the response if it answers a request with the given body.
+     *
+     * @param idempotencyKey the idempotency key sent by the client
+     * @param hash           the hash of the body of the request
+     * @return the response
+     * @throws IdempotencyKeyReusedException if the key was used with another
+     *                                       body
+     */
+    public T responseFor(String idempotencyKey, String hash) {
+        if (!requestHash.equals(hash)) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,203 @@
+package com.melloware.petstore.order.gateway.progress;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ServiceUnavailableException;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.melloware.petstore.order.gateway.PurchaseOrderService;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderProgress;
+import com.melloware.petstore.order.gateway.temporal.PurchaseOrderStatus;
+
+import io.quarkus.runtime.Startup;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Fan-out hub which pushes order step transitions to any number of
+ * subscribers on this node.
+ * <p>
+ * Transitions are received from the workflows executing on this node through
+ * {@link PurchaseOrderProgress}. Because a workflow may execute on another
+ * gateway node, every order with subscribers is also refreshed from the cached
+ * order status on a fixed interval, costing one status lookup per order rather
+ * than one per subscriber.
+ * <p>
+ * Each subscriber has a bounded buffer. A subscriber which falls behind by more
+ * than the buffer is disconnected and can reconnect to receive the current
+ * status.
+ */
+@ApplicationScoped
+@Startup
+@JBossLog
+public class OrderProgressHub {
+
+    @ConfigProperty(name = "petstore.gateway.progress.buffer-size", defaultValue = "16")
+    int bufferSize;
+
+    @ConfigProperty(name = "petstore.gateway.progress.max-subscribers", defaultValue = "10000")
+    int maxSubscribers;
+
+    @ConfigProperty(name = "petstore.gateway.progress.refresh-interval", defaultValue = "5s")
+    Duration refreshInterval;
+
+    @Inject
+    PurchaseOrderService purchaseOrderService;
+
+    // Subscribers by transaction id
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    void init() {
+        PurchaseOrderProgress.setListener(this::publish);
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-progress-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        PurchaseOrderProgress.setListener(status -> {
+        });
+        refresher.shutdownNow();
+        subscribers.values().forEach(subs -> subs.forEach(Subscriber::complete));
+    }
+
+    /**
+     * Subscribes to the step transitions of an order.
+     * <p>
+     * The stream starts with the current status of the order and completes once
+     * the order reaches a final step.
+     *
+     * @param transactionId the transaction id of the order
+     * @return stream of {@link PurchaseOrderStatus}
+     */
+    public Multi<PurchaseOrderStatus> subscribe(UUID transactionId) {
+        return Multi.createFrom().<PurchaseOrderStatus>emitter(emitter -> {
+            if (subscriberCount.incrementAndGet() > maxSubscribers) {
+                subscriberCount.decrementAndGet();
+                emitter.fail(new ServiceUnavailableException("Too many order progress subscribers"));
+                return;
+            }
+
+            Subscriber subscriber = new Subscriber(emitter);
+            subscribers.computeIfAbsent(transactionId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            emitter.onTermination(() -> unsubscribe(transactionId, subscriber));
+
+            // Start with the current status so the subscriber does not wait for the next step
+            Infrastructure.getDefaultWorkerPool().execute(() -> {
+                try {
+                    subscriber.offer(purchaseOrderService.getStatus(transactionId));
+                } catch (ServiceUnavailableException e) {
+                    // Status of a running order not known yet, the next refresh delivers it
+                    log.debugf("Status of TX id %s not available yet", transactionId);
+                } catch (Exception e) {
+                    subscriber.fail(e);
+                }
+            });
+        }, bufferSize);
+    }
+
+    /**
+     * Returns the number of subscribers currently connected to this node.
+     *
+     * @return number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Pushes a step transition to every subscriber of the order.
+     *
+     * @param status the new status of the order
+     */
+    void publish(PurchaseOrderStatus status) {
+        Set<Subscriber> subs = subscribers.get(status.getTransactionId());
+        if (subs != null) {
+            subs.forEach(subscriber -> subscriber.offer(status));
+        }
+    }
+
+    /**
+     * Refreshes every order with subscribers from the cached order status.
+     */
+    private void refreshAll() {
+        subscribers.keySet().forEach(transactionId -> Infrastructure.getDefaultWorkerPool().execute(() -> {
+            try {
+                publish(purchaseOrderService.getStatus(transactionId));
+            } catch (Exception e) {
+                log.debugf(e, "Unable to refresh progress for TX id %s", transactionId);
+            }
+        }));
+    }
+
+    /**
+     * Removes a subscriber once its stream terminates.
+     *
+     * @param transactionId the transaction id of the order
+     * @param subscriber    the subscriber to remove
+     */
+    private void unsubscribe(UUID transactionId, Subscriber subscriber) {
+        subscribers.computeIfPresent(transactionId, (id, subs) -> {
+            subs.remove(subscriber);
+            return subs.isEmpty() ? null : subs;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    /**
+     * A single subscriber which only receives steps past the last one it has
+     * seen, so refreshes and out of order deliveries never move it backwards.
+     */
+    private static final class Subscriber {
+
+        private final MultiEmitter<? super PurchaseOrderStatus> emitter;
+        private int lastStep = -1;
+
+        private Subscriber(MultiEmitter<? super PurchaseOrderStatus> emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(PurchaseOrderStatus status) {
+            if (emitter.isCancelled() || status.getStep().ordinal() <= lastStep) {
+                return;
+            }
+            lastStep = status.getStep().ordinal();
+            emitter.emit(status);
+            if (status.getStep().isFinal()) {
+                emitter.complete();
+            }
+        }
+
+        synchronized void fail(Throwable failure) {
+            emitter.fail(failure);
+        }
+
+        synchronized void complete() {
+            emitter.complete();
+        }
+    }
+}
@@ -1,23 +1,21 @@
 package com.melloware.petstore.order.gateway.temporal;
 
 import java.time.Duration;
+import java.util.List;
 
-import jakarta.validation.ConstraintViolationException;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
 
-import com.fasterxml.jackson.databind.JsonMappingException;
 import com.melloware.petstore.common.activities.order.OrderNotificationActivities;
 import com.melloware.petstore.common.activities.order.OrderServiceActivities;
 import com.melloware.petstore.common.activities.payment.PaymentActivities;
 import com.melloware.petstore.common.activities.shipper.ShipperActivities;
 import com.melloware.petstore.common.activities.warehouse.WarehouseActivities;
-import com.melloware.petstore.common.models.exceptions.BadPaymentInfoException;
-import com.melloware.petstore.common.models.exceptions.OutOfStockException;
-import com.melloware.petstore.common.models.exceptions.PaymentDeclinedException;
-import com.melloware.petstore.common.models.exceptions.PurchasingException;
+import com.melloware.petstore.common.retry.FailureClassifier;
 
-import io.quarkus.arc.ArcUndeclaredThrowableException;
 import io.temporal.activity.ActivityCancellationType;
 import io.temporal.activity.ActivityOptions;
+import io.temporal.activity.LocalActivityOptions;
 import io.temporal.common.RetryOptions;
 import io.temporal.workflow.Workflow;
 
@@ -27,30 +25,178 @@ import lombok.experimental.UtilityClass;
  * Provider class for creating activity stubs with predefined options.
  * This class sets up common activity options and provides methods to create
  * activity stubs for various services in the pet store application.
+ * <p>
+ * Timeouts and retries are read from {@code petstore.activity.<name>.*} for
+ * each activity interface, falling back to {@code petstore.activity.default.*}:
+ * {@code start-to-close-timeout}, {@code initial-interval},
+ * {@code maximum-interval}, {@code backoff-coefficient} and
+ * {@code maximum-attempts}. Exceptions listed in
+ * {@code petstore.temporal.retry.do-not-retry} are never retried, on top of
+ * {@link FailureClassifier#DEFAULT_NON_RETRYABLE_TYPES}.
+ * <p>
+ * Compensations undo a step that already took effect, so they must not give up
+ * during an outage. The compensation stubs read
+ * {@code petstore.activity.compensation.*} only, retrying without an attempt
+ * limit and at most every 100 seconds by default.
+ * <p>
+ * The {@link PurchaseOrderLocalActivities} named in
+ * {@code petstore.activity.local-steps} run as local activities with the
+ * {@code petstore.activity.local.*} options.
+ * <p>
+ * With {@code petstore.activity.slim-payloads}, the activities after the order
+ * is created receive only the transaction id, the order number and the fields
+ * they need, and resolve the products stored by the order service.
  */
 @UtilityClass
 public class ActivityStubsProvider {
 
-        // Activity options for demo purposes, limiting retry time
-        private final static ActivityOptions options = ActivityOptions.newBuilder()
-                        .setStartToCloseTimeout(Duration.ofSeconds(30))
-                        .setRetryOptions(RetryOptions.newBuilder()
-                                        .setDoNotRetry(
-                                                        ArcUndeclaredThrowableException.class.getName(),
-                                                        BadPaymentInfoException.class.getName(),
-                                                        ConstraintViolationException.class.getName(),
-                                                        JsonMappingException.class.getName(),
-                                                        NullPointerException.class.getName(),
-                                                        OutOfStockException.class.getName(),
-                                                        PaymentDeclinedException.class.getName(),
-                                                        PurchasingException.class.getName(),
-                                                        IllegalArgumentException.class.getName())
-                                        .setInitialInterval(Duration.ofSeconds(1))
-                                        .setMaximumInterval(Duration.ofSeconds(100))
-                                        .setBackoffCoefficient(2)
-                                        .setMaximumAttempts(500)
-                                        .build())
-                        .build();
+        private static final String PREFIX = "petstore.activity.";
+        private static final String DEFAULT = "default";
+        private static final String LOCAL = "local";
+        private static final String COMPENSATION = "compensation";
+
+        /**
+         * Builds the activity options of an activity interface from the
+         * configuration.
+         *
+         * @param name      name of the activity interface in the configuration
+         * @param taskQueue task queue of the activity worker
+         * @return the activity options
+         */
+        static ActivityOptions options(String name, String taskQueue) {
+                Config config = ConfigProvider.getConfig();
+                FailureClassifier classifier = classifier(config);
+
+                return ActivityOptions.newBuilder()
+                                .setTaskQueue(taskQueue)
+                                .setCancellationType(ActivityCancellationType.WAIT_CANCELLATION_COMPLETED)
+                                .setStartToCloseTimeout(value(config, name, "start-to-close-timeout",
+                                                Duration.class, Duration.ofSeconds(30)))
+                                .setRetryOptions(RetryOptions.newBuilder()
+                                                .setDoNotRetry(classifier.getNonRetryableTypes())
+                                                .setInitialInterval(value(config, name, "initial-interval",
+                                                                Duration.class, Duration.ofSeconds(1)))
+                                                .setMaximumInterval(value(config, name, "maximum-interval",
+                                                                Duration.class, Duration.ofSeconds(30)))
+                                                .setBackoffCoefficient(value(config, name, "backoff-coefficient",
+                                                                Double.class, 2.0))
+                                                .setMaximumAttempts(value(config, name, "maximum-attempts",
+                                                                Integer.class, 10))
+                                                .build())
+                                .build();
+        }
+
+        /**
+         * Builds the options of the compensation activities from the
+         * configuration, without falling back to the forward activity settings.
+         *
+         * @param taskQueue task queue of the activity worker
+         * @return the activity options
+         */
+        static ActivityOptions compensationOptions(String taskQueue) {
+                Config config = ConfigProvider.getConfig();
+                FailureClassifier classifier = classifier(config);
+
+                return ActivityOptions.newBuilder()
+                                .setTaskQueue(taskQueue)
+                                .setCancellationType(ActivityCancellationType.WAIT_CANCELLATION_COMPLETED)
+                                .setStartToCloseTimeout(compensationValue(config, "start-to-close-timeout",
+                                                Duration.class, Duration.ofSeconds(30)))
+                                .setRetryOptions(RetryOptions.newBuilder()
+                                                .setDoNotRetry(classifier.getNonRetryableTypes())
+                                                .setInitialInterval(compensationValue(config, "initial-interval",
+                                                                Duration.class, Duration.ofSeconds(1)))
+                                                .setMaximumInterval(compensationValue(config, "maximum-interval",
+                                                                Duration.class, Duration.ofSeconds(100)))
+                                                .setBackoffCoefficient(compensationValue(config,
+                                                                "backoff-coefficient", Double.class, 2.0))
+                                                // 0 retries until the compensation succeeds
+                                                .setMaximumAttempts(compensationValue(config, "maximum-attempts",
+                                                                Integer.class, 0))
+                                                .build())
+                                .build();
+        }
+
+        /**
+         * Builds the local activity options from the configuration.
+         *
+         * @return the local activity options
+         */
+        static LocalActivityOptions localOptions() {
+                Config config = ConfigProvider.getConfig();
+                FailureClassifier classifier = classifier(config);
+
+                return LocalActivityOptions.newBuilder()
+                                .setStartToCloseTimeout(value(config, LOCAL, "start-to-close-timeout",
+                                                Duration.class, Duration.ofSeconds(5)))
+                                .setRetryOptions(RetryOptions.newBuilder()
+                                                .setDoNotRetry(classifier.getNonRetryableTypes())
+                                                .setInitialInterval(value(config, LOCAL, "initial-interval",
+                                                                Duration.class, Duration.ofMillis(100)))
+                                                .setMaximumInterval(value(config, LOCAL, "maximum-interval",
+                                                                Duration.class, Duration.ofSeconds(1)))
+                                                .setBackoffCoefficient(value(config, LOCAL, "backoff-coefficient",
+                                                                Double.class, 2.0))
+                                                .setMaximumAttempts(value(config, LOCAL, "maximum-attempts",
+                                                                Integer.class, 3))
+                                                .build())
+                                .build();
+        }
+
+        /**
+         * Returns the steps configured to run as local activities. Must only be
+         * read through a side effect from workflow code.
+         *
+         * @return names of the {@link PurchaseOrderLocalActivities} steps
+         */
+        public static String[] getLocalSteps() {
+                return ConfigProvider.getConfig()
+                                .getOptionalValues(PREFIX + "local-steps", String.class)
+                                .orElse(List.of())
+                                .toArray(String[]::new);
+        }
+
+        /**
+         * Returns whether the activities receive slim requests, carrying the
+         * transaction id instead of the products of the order. Must only be read
+         * through a side effect from workflow code.
+         *
+         * @return {@code true} if {@code petstore.activity.slim-payloads} is set
+         */
+        public static boolean isSlimPayloads() {
+                return ConfigProvider.getConfig()
+                                .getOptionalValue(PREFIX + "slim-payloads", Boolean.class)
+                                .orElse(false);
+        }
+
+        /**
+         * Returns whether the compensations of a failed order run concurrently.
+         * Must only be read through a side effect from workflow code.
+         *
+         * @return {@code true} if {@code petstore.activity.parallel-compensation}
+         *         is set
+         */
+        public static boolean isParallelCompensation() {
+                return ConfigProvider.getConfig()
+                                .getOptionalValue(PREFIX + "parallel-compensation", Boolean.class)
+                                .orElse(false);
+        }
+
+        private static FailureClassifier classifier(Config config) {
+                return new FailureClassifier(config
+                                .getOptionalValues("petstore.temporal.retry.do-not-retry", String.class)
+                                .orElse(List.of()));
+        }
+
+        private static <T> T value(Config config, String name, String property, Class<T> type, T defaultValue) {
+                return config.getOptionalValue(PREFIX + name + "." + property, type)
+                                .or(() -> config.getOptionalValue(PREFIX + DEFAULT + "." + property, type))
+                                .orElse(defaultValue);
+        }
+
+        private static <T> T compensationValue(Config config, String property, Class<T> type, T defaultValue) {
+                return config.getOptionalValue(PREFIX + COMPENSATION + "." + property, type).orElse(defaultValue);
+        }
 
         /**
          * Creates and returns a WarehouseActivities stub.
@@ -58,10 +204,7 @@ public class ActivityStubsProvider {
          * @return WarehouseActivities stub with predefined options
          */
         public static WarehouseActivities getWarehouseActivities() {
-                ActivityOptions newOptions = ActivityOptions.newBuilder(options)
-                                .setTaskQueue("warehouse-tasks")
-                                .setCancellationType(ActivityCancellationType.WAIT_CANCELLATION_COMPLETED)
-                                .build();
+                ActivityOptions newOptions = options("warehouse", "warehouse-tasks");
 
                 return Workflow.newActivityStub(
                                 WarehouseActivities.class,
@@ -74,10 +217,7 @@ public class ActivityStubsProvider {
          * @return ShipperActivities stub with predefined options
          */
         public static ShipperActivities getShipperActivities() {
-                ActivityOptions newOptions = ActivityOptions.newBuilder(options)
-                                .setTaskQueue("shipment-tasks")
-                                .setCancellationType(ActivityCancellationType.WAIT_CANCELLATION_COMPLETED)
-                                .build();
+                ActivityOptions newOptions = options("shipper", "shipment-tasks");
 
                 return Workflow.newActivityStub(
                                 ShipperActivities.class,
@@ -90,10 +230,7 @@ public class ActivityStubsProvider {
          * @return PaymentActivities stub with predefined options
          */
         public static PaymentActivities getPaymentActivities() {
-                ActivityOptions newOptions = ActivityOptions.newBuilder(options)
-                                .setTaskQueue("payment-tasks")
-                                .setCancellationType(ActivityCancellationType.WAIT_CANCELLATION_COMPLETED)
-                                .build();
+                ActivityOptions newOptions = options("payment", "payment-tasks");
 
                 return Workflow.newActivityStub(PaymentActivities.class,
                                 newOptions);
@@ -105,10 +242,7 @@ public class ActivityStubsProvider {
          * @return OrderServiceActivities stub with predefined options
          */
         public static OrderServiceActivities getOrderServiceActivities() {
-                ActivityOptions newOptions = ActivityOptions.newBuilder(options)
-                                .setTaskQueue("order-tasks")
-                                .setCancellationType(ActivityCancellationType.WAIT_CANCELLATION_COMPLETED)
-                                .build();
+                ActivityOptions newOptions = options("order", "order-tasks");
 
                 return Workflow.newActivityStub(OrderServiceActivities.class,
                                 newOptions);
@@ -120,13 +254,49 @@ public class ActivityStubsProvider {
          * @return OrderNotificationActivities stub with predefined options
          */
         public static OrderNotificationActivities getOrderNotificationActivities() {
-                ActivityOptions newOptions = ActivityOptions.newBuilder(options)
-                                .setTaskQueue("notification-tasks")
-                                .setCancellationType(ActivityCancellationType.WAIT_CANCELLATION_COMPLETED)
-                                .build();
+                ActivityOptions newOptions = options("notification", "notification-tasks");
 
                 return Workflow.newActivityStub(OrderNotificationActivities.class,
                                 newOptions);
         }
 
+        /**
+         * Creates and returns a WarehouseActivities stub for compensations.
+         *
+         * @return WarehouseActivities stub with the compensation options
+         */
+        public static WarehouseActivities getWarehouseCompensations() {
+                return Workflow.newActivityStub(WarehouseActivities.class,
+                                compensationOptions("warehouse-tasks"));
+        }
+
+        /**
+         * Creates and returns a ShipperActivities stub for compensations.
+         *
+         * @return ShipperActivities stub with the compensation options
+         */
+        public static ShipperActivities getShipperCompensations() {
+                return Workflow.newActivityStub(ShipperActivities.class,
+                                compensationOptions("shipment-tasks"));
+        }
+
+        /**
+         * Creates and returns a PaymentActivities stub for compensations.
+         *
+         * @return PaymentActivities stub with the compensation options
+         */
+        public static PaymentActivities getPaymentCompensations() {
+                return Workflow.newActivityStub(PaymentActivities.class,
+                                compensationOptions("payment-tasks"));
+        }
+
+        /**
+         * Creates and returns a PurchaseOrderLocalActivities stub.
+         *
+         * @return PurchaseOrderLocalActivities stub with predefined options
+         */
+        public static PurchaseOrderLocalActivities getLocalActivities() {
+                return Workflow.newLocalActivityStub(PurchaseOrderLocalActivities.class, localOptions());
+        }
+
 }
\ No newline at end of file
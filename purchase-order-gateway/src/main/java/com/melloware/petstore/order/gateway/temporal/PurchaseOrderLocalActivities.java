@@ -0,0 +1,64 @@
+package com.melloware.petstore.order.gateway.temporal;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import com.melloware.petstore.common.models.json.CreateTrackingNumberRequest;
+import com.melloware.petstore.common.models.json.Product;
+
+import io.temporal.activity.ActivityInterface;
+
+/**
+ * Cheap steps of the purchase order run as local activities in the gateway
+ * worker, without a task queue round trip or activity task events.
+ * <p>
+ * Which steps run locally is read from {@code petstore.activity.local-steps}
+ * with the step names below.
+ */
+@ActivityInterface(namePrefix = "Local")
+public interface PurchaseOrderLocalActivities {
+
+    /**
+     * Step name of {@link #validateOrder(PurchaseOrderContext)}
+     */
+    String VALIDATION = "validation";
+
+    /**
+     * Step name of {@link #calculateOrderTotal(List)}
+     */
+    String PRICE = "price";
+
+    /**
+     * Step name of {@link #createTrackingNumber(CreateTrackingNumberRequest)}
+     */
+    String TRACKING_NUMBER = "tracking-number";
+
+    /**
+     * Validates the order against the constraints of the context, except the
+     * status and order number which the workflow assigns once the order is
+     * created.
+     *
+     * @param ctx {@link PurchaseOrderContext}
+     * @throws jakarta.validation.ConstraintViolationException if the order is
+     *                                                          invalid
+     */
+    void validateOrder(@NotNull PurchaseOrderContext ctx);
+
+    /**
+     * Calculates the total price of the products.
+     *
+     * @param products the products of the order
+     * @return Total price
+     */
+    double calculateOrderTotal(@NotNull List<Product> products);
+
+    /**
+     * Creates a tracking number for the shipment.
+     *
+     * @param request {@link CreateTrackingNumberRequest}
+     * @return Tracking number
+     */
+    String createTrackingNumber(@Valid @NotNull CreateTrackingNumberRequest request);
+}
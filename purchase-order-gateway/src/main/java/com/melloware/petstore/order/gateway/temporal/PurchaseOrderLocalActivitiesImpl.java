@@ -0,0 +1,61 @@
+package com.melloware.petstore.order.gateway.temporal;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+
+import com.melloware.petstore.common.models.json.CreateTrackingNumberRequest;
+import com.melloware.petstore.common.models.json.Product;
+import com.melloware.petstore.common.utils.IdGenerator;
+
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Implementation of the local activities of the purchase order workflow.
+ */
+@ApplicationScoped
+@JBossLog
+public class PurchaseOrderLocalActivitiesImpl implements PurchaseOrderLocalActivities {
+
+    // Properties of the context assigned by the workflow once the order is created
+    private static final Set<String> ASSIGNED_BY_WORKFLOW = Set.of("status", "orderNumber");
+
+    private final Validator validator;
+
+    @Inject
+    public PurchaseOrderLocalActivitiesImpl(Validator validator) {
+        this.validator = validator;
+    }
+
+    @Override
+    public void validateOrder(PurchaseOrderContext ctx) {
+        Set<ConstraintViolation<PurchaseOrderContext>> violations = validator.validate(ctx).stream()
+                .filter(violation -> !ASSIGNED_BY_WORKFLOW
+                        .contains(violation.getPropertyPath().iterator().next().getName()))
+                .collect(Collectors.toSet());
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    @Override
+    public double calculateOrderTotal(List<Product> products) {
+        return products.stream()
+                .mapToDouble(product -> product.getQuantity() * product.getPrice())
+                .sum();
+    }
+
+    @Override
+    public String createTrackingNumber(CreateTrackingNumberRequest request) {
+        // Same as the shipment service, which only generates the number for now
+        String tracker = IdGenerator.newTrackingNumber();
+        log.infof("Generated tracking number %s for %d products", tracker, request.getProducts().size());
+        return tracker;
+    }
+}
@@ -0,0 +1,52 @@
+package com.melloware.petstore.order.gateway.temporal;
+
+import java.util.function.Consumer;
+
+import io.temporal.workflow.Workflow;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Bridge which lets the {@link PurchaseOrderWorkflowImpl} report step
+ * transitions to the gateway without depending on CDI.
+ * <p>
+ * Workflow code is instantiated by Temporal, not CDI, so the listener is
+ * registered here once at startup. Transitions are only published while the
+ * workflow is executing new code, never while it is replaying history.
+ */
+@UtilityClass
+@JBossLog
+public class PurchaseOrderProgress {
+
+    // Does nothing until a listener is registered
+    private volatile Consumer<PurchaseOrderStatus> listener = status -> {
+    };
+
+    /**
+     * Registers the listener notified of every step transition.
+     *
+     * @param progressListener the listener, must not block
+     */
+    public static void setListener(Consumer<PurchaseOrderStatus> progressListener) {
+        listener = progressListener;
+    }
+
+    /**
+     * Publishes a step transition from workflow code.
+     * <p>
+     * Failures of the listener are logged and never fail the workflow task.
+     *
+     * @param status the new status of the order
+     */
+    public static void publish(PurchaseOrderStatus status) {
+        if (Workflow.isReplaying()) {
+            return;
+        }
+        try {
+            listener.accept(status);
+        } catch (Exception e) {
+            log.warnf(e, "Unable to publish progress for TX id %s", status.getTransactionId());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.melloware.petstore.order.gateway.temporal;
+
+import java.util.UUID;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import com.melloware.petstore.common.models.enums.OrderFailureReason;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Current status of a purchase order as tracked by the
+ * {@link PurchaseOrderWorkflow}.
+ */
+@Builder(toBuilder = true)
+@Getter
+@ToString
+@Jacksonized
+@Schema(description = "Current status of a purchase order")
+public class PurchaseOrderStatus {
+
+    @Schema(description = "The transaction id of the order", example = "123e4567-e89b-12d3-a456-426614174000")
+    private final UUID transactionId;
+
+    @Schema(description = "The last step reached by the order", example = "ORDER_CREATED")
+    private final PurchaseOrderStep step;
+
+    // Not known until the order record is created
+    @Schema(description = "The order number, once the order record is created", example = "PET-ORD-1a2b3c4d-5e6f-7a8b")
+    private final String orderNumber;
+
+    // Not known until the shipper assigns one
+    @Schema(description = "The shipment tracking number, once assigned")
+    private final String trackingNumber;
+
+    // Only set when the order failed
+    @Schema(description = "The reason the order failed, if it failed", example = "PAYMENT_DECLINED")
+    private final OrderFailureReason failureReason;
+}
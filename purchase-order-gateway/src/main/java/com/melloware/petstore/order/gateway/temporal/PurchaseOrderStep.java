@@ -0,0 +1,76 @@
+package com.melloware.petstore.order.gateway.temporal;
+
+/**
+ * Enum representing the steps a purchase order goes through in the
+ * {@link PurchaseOrderWorkflow}.
+ * <p>
+ * Steps are reported in the order they are reached. {@link #COMPLETED} and
+ * {@link #FAILED} are final.
+ * </p>
+ */
+public enum PurchaseOrderStep {
+
+    /**
+     * The order request was received and the workflow started.
+     */
+    RECEIVED("Order request received"),
+
+    /**
+     * The order record was created and has an order number.
+     */
+    ORDER_CREATED("Order record created"),
+
+    /**
+     * The customer's credit card was charged.
+     */
+    PAYMENT_CHARGED("Payment charged"),
+
+    /**
+     * The warehouse confirmed all products are in stock.
+     */
+    INVENTORY_CONFIRMED("Inventory confirmed"),
+
+    /**
+     * The shipper assigned a tracking number.
+     */
+    TRACKING_NUMBER_ASSIGNED("Tracking number assigned"),
+
+    /**
+     * The order was completed successfully.
+     */
+    COMPLETED("Order completed"),
+
+    /**
+     * The order failed and any compensations were run.
+     */
+    FAILED("Order failed");
+
+    private final String description;
+
+    /**
+     * Constructs a new {@code PurchaseOrderStep} with the specified description.
+     *
+     * @param description the description of the step
+     */
+    PurchaseOrderStep(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Returns the description of the step.
+     *
+     * @return the description of the step
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns whether the step is final and no further steps will follow.
+     *
+     * @return {@code true} for {@link #COMPLETED} and {@link #FAILED}
+     */
+    public boolean isFinal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -3,6 +3,10 @@ package com.melloware.petstore.order.gateway.temporal;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 
+import com.melloware.petstore.common.models.json.CreateOrderResponse;
+
+import io.temporal.workflow.QueryMethod;
+import io.temporal.workflow.UpdateMethod;
 import io.temporal.workflow.WorkflowInterface;
 import io.temporal.workflow.WorkflowMethod;
 
@@ -12,6 +16,33 @@ import io.temporal.workflow.WorkflowMethod;
 @WorkflowInterface
 public interface PurchaseOrderWorkflow {
 
+    /**
+     * Failure type of {@link #awaitOrderCreated()} when the order failed before
+     * its record was created
+     */
+    String ORDER_NOT_CREATED = "OrderNotCreated";
+
     @WorkflowMethod(name = "placeOrder")
     void placeOrder(@Valid @NotNull PurchaseOrderContext ctx);
-}
\ No newline at end of file
+
+    /**
+     * Returns the current status of the order.
+     *
+     * @return {@link PurchaseOrderStatus}
+     */
+    @QueryMethod(name = "getStatus")
+    PurchaseOrderStatus getStatus();
+
+    /**
+     * Waits until the order record is created, so a purchase started with
+     * update-with-start can answer with the order number while the rest of the
+     * workflow carries on.
+     *
+     * @return {@link CreateOrderResponse} of the created order
+     * @throws io.temporal.failure.ApplicationFailure of type
+     *                                                {@value #ORDER_NOT_CREATED}
+     *                                                if the order failed first
+     */
+    @UpdateMethod(name = "awaitOrderCreated")
+    CreateOrderResponse awaitOrderCreated();
+}
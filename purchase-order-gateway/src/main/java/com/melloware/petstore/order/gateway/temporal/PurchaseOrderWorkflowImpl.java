@@ -1,5 +1,8 @@
 package com.melloware.petstore.order.gateway.temporal;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -14,10 +17,14 @@ import com.melloware.petstore.common.activities.order.OrderServiceActivities;
 import com.melloware.petstore.common.activities.payment.PaymentActivities;
 import com.melloware.petstore.common.activities.shipper.ShipperActivities;
 import com.melloware.petstore.common.activities.warehouse.WarehouseActivities;
+import com.melloware.petstore.common.claimcheck.ClaimCheckedProductList;
 import com.melloware.petstore.common.models.enums.OrderFailureReason;
 import com.melloware.petstore.common.models.exceptions.BadPaymentInfoException;
 import com.melloware.petstore.common.models.exceptions.OutOfStockException;
 import com.melloware.petstore.common.models.exceptions.PaymentDeclinedException;
+import com.melloware.petstore.common.models.json.AuthorizePaymentResponse;
+import com.melloware.petstore.common.models.json.CancelShipmentRequest;
+import com.melloware.petstore.common.models.json.CapturePaymentRequest;
 import com.melloware.petstore.common.models.json.CheckInventoryRequest;
 import com.melloware.petstore.common.models.json.CreateOrderRequest;
 import com.melloware.petstore.common.models.json.CreateOrderResponse;
@@ -31,10 +38,15 @@ import com.melloware.petstore.common.models.json.OrderReceivedEmailNotificationR
 import com.melloware.petstore.common.models.json.OrderSuccessEmailNotificationRequest;
 import com.melloware.petstore.common.models.json.Product;
 import com.melloware.petstore.common.models.json.ReverseActionsForTransactionRequest;
+import com.melloware.petstore.common.models.json.VoidPaymentRequest;
 import com.melloware.petstore.common.utils.TemporalActivityExceptionChecker;
 
+import io.temporal.failure.ActivityFailure;
+import io.temporal.failure.ApplicationFailure;
 import io.temporal.failure.CanceledFailure;
 import io.temporal.failure.TemporalFailure;
+import io.temporal.workflow.Async;
+import io.temporal.workflow.Promise;
 import io.temporal.workflow.Saga;
 import io.temporal.workflow.Workflow;
 
@@ -58,16 +70,128 @@ import lombok.extern.jbosslog.JBossLog;
  * <p>
  * The workflow includes error handling and compensation logic to manage
  * failures at various stages of the order process.
+ * <p>
+ * From version {@value #PARALLEL_NOTIFICATIONS_VERSION} of the
+ * {@value #PARALLEL_NOTIFICATIONS} change, the customer emails are no longer on
+ * the critical path: the acknowledgement email runs while the order is created
+ * and the confirmation email while the order is marked complete. The workflow
+ * waits for them before it ends, but a failed email is only logged.
+ * <p>
+ * From version {@value #AUTHORIZE_CAPTURE_VERSION} of the
+ * {@value #AUTHORIZE_CAPTURE} change, the card is authorized while the
+ * inventory is reserved, and the payment is only captured once both succeed.
+ * A failed order then voids the authorization and releases the inventory
+ * instead of refunding a charge.
+ * <p>
+ * From version {@value #LOCAL_ACTIVITIES_VERSION} of the
+ * {@value #LOCAL_ACTIVITIES} change, the order is validated first, and the
+ * validation, the order total and the tracking number can run as
+ * {@link PurchaseOrderLocalActivities}. The configured steps are recorded once
+ * per execution with a side effect so that a configuration change never
+ * affects replay.
+ * <p>
+ * From version {@value #SLIM_PAYLOADS_VERSION} of the {@value #SLIM_PAYLOADS}
+ * change, and when {@code petstore.activity.slim-payloads} is set, the products
+ * are sent once to create the order. The later activities only receive the
+ * transaction id, the order number and the fields they need, and the services
+ * resolve the products stored by the order service. The acknowledgement email
+ * is then sent once the order is created.
+ * <p>
+ * The {@code awaitOrderCreated} update returns the order record as soon as it
+ * is created, for purchases started with update-with-start. It records nothing
+ * unless it is called, so it needs no version.
+ * <p>
+ * From version {@value #COMPLETE_COMPENSATION_VERSION} of the
+ * {@value #COMPLETE_COMPENSATION} change, every step with a side effect
+ * registers its compensation: the inventory is released and the shipment
+ * cancelled as well as the payment reversed. When
+ * {@code petstore.activity.parallel-compensation} is set the compensations,
+ * which touch independent services, run concurrently, and a failed one no
+ * longer stops the others. The order is also marked failed and the error email
+ * sent while the compensations run.
+ * <p>
+ * From version {@value #AWAIT_NOTIFICATIONS_ON_FAILURE_VERSION} of the
+ * {@value #AWAIT_NOTIFICATIONS_ON_FAILURE} change, a failed order also waits
+ * for the emails still in flight once its cleanup is done, for at most
+ * {@link #FAILED_ORDER_NOTIFICATION_TIMEOUT}, so they are not abandoned when
+ * the workflow ends. A failed or late email is only logged.
+ * <p>
+ * From version {@value #CONFIRM_AFTER_COMPLETE_VERSION} of the
+ * {@value #CONFIRM_AFTER_COMPLETE} change, the confirmation email is only sent
+ * once the order is marked complete, so a customer is never told about an
+ * order which then fails. It still runs without holding up the workflow.
+ * <p>
+ * From version {@value #CLAIM_CHECKED_PRODUCTS_VERSION} of the
+ * {@value #CLAIM_CHECKED_PRODUCTS} change, the workflow never reads the
+ * products of a {@link ClaimCheckedProductList}: the order total is then
+ * calculated by the local activity, so the claim check is only resolved by
+ * activities and replay does not depend on the stored blobs.
  */
 @JBossLog
 public class PurchaseOrderWorkflowImpl implements PurchaseOrderWorkflow {
 
+    // Change id and version of the concurrent customer emails
+    static final String PARALLEL_NOTIFICATIONS = "parallel-notifications";
+    static final int PARALLEL_NOTIFICATIONS_VERSION = 1;
+
+    // Change id and version of the authorize, reserve then capture payment
+    static final String AUTHORIZE_CAPTURE = "authorize-capture";
+    static final int AUTHORIZE_CAPTURE_VERSION = 1;
+
+    // Change id and version of the local activities
+    static final String LOCAL_ACTIVITIES = "local-activities";
+    static final int LOCAL_ACTIVITIES_VERSION = 1;
+
+    // Change id and version of the slim activity requests
+    static final String SLIM_PAYLOADS = "slim-payloads";
+    static final int SLIM_PAYLOADS_VERSION = 1;
+
+    // Change id and version of the inventory and shipment compensations
+    static final String COMPLETE_COMPENSATION = "complete-compensation";
+    static final int COMPLETE_COMPENSATION_VERSION = 1;
+
+    // Change id and version of the wait for the emails of a failed order
+    static final String AWAIT_NOTIFICATIONS_ON_FAILURE = "await-notifications-on-failure";
+    static final int AWAIT_NOTIFICATIONS_ON_FAILURE_VERSION = 1;
+
+    // Change id and version of the confirmation email sent after the order is complete
+    static final String CONFIRM_AFTER_COMPLETE = "confirm-after-complete";
+    static final int CONFIRM_AFTER_COMPLETE_VERSION = 1;
+
+    // Change id and version of the order total of claim checked products calculated by an activity
+    static final String CLAIM_CHECKED_PRODUCTS = "claim-checked-products";
+    static final int CLAIM_CHECKED_PRODUCTS_VERSION = 1;
+
+    // Longest wait of a failed order for its emails still in flight
+    static final Duration FAILED_ORDER_NOTIFICATION_TIMEOUT = Duration.ofMinutes(5);
+
     private final PaymentActivities paymentActivity = ActivityStubsProvider.getPaymentActivities();
     private final OrderNotificationActivities notificationActivity = ActivityStubsProvider
             .getOrderNotificationActivities();
     private final OrderServiceActivities orderActivity = ActivityStubsProvider.getOrderServiceActivities();
     private final WarehouseActivities warehouseActivity = ActivityStubsProvider.getWarehouseActivities();
     private final ShipperActivities shipmentActivity = ActivityStubsProvider.getShipperActivities();
+    private final PurchaseOrderLocalActivities localActivity = ActivityStubsProvider.getLocalActivities();
+
+    // Compensations keep retrying past the limits of the forward calls
+    private final PaymentActivities paymentCompensation = ActivityStubsProvider.getPaymentCompensations();
+    private final WarehouseActivities warehouseCompensation = ActivityStubsProvider.getWarehouseCompensations();
+    private final ShipperActivities shipmentCompensation = ActivityStubsProvider.getShipperCompensations();
+
+    // Current status of the order exposed through the getStatus query
+    private PurchaseOrderStatus status;
+
+    // Whether the authorized payment was captured, picks the payment compensation
+    private boolean paymentCaptured;
+
+    // Whether the activities after the order creation receive slim requests
+    private boolean slimPayloads;
+
+    // Order record once created, returned by the awaitOrderCreated update
+    private CreateOrderResponse createdOrder;
+
+    // Whether every step registers its compensation and the cleanup runs concurrently
+    private boolean completeCompensation;
 
     /**
      * Initiates and executes the order placement workflow.
@@ -86,25 +210,80 @@ public class PurchaseOrderWorkflowImpl implements PurchaseOrderWorkflow {
 
         Objects.requireNonNull(orderCtx, "PurchaseOrderContext is required");
 
+        updateStatus(PurchaseOrderStatus.builder()
+                .transactionId(orderCtx.getTransactionId())
+                .step(PurchaseOrderStep.RECEIVED)
+                .build());
+
+        // Executions started before the emails ran concurrently replay sequentially
+        boolean parallelNotifications = Workflow.getVersion(PARALLEL_NOTIFICATIONS, Workflow.DEFAULT_VERSION,
+                PARALLEL_NOTIFICATIONS_VERSION) >= PARALLEL_NOTIFICATIONS_VERSION;
+        List<Promise<Void>> notifications = parallelNotifications ? new ArrayList<>() : null;
+
+        // Steps run as local activities, recorded once so replay ignores later config changes
+        boolean localActivities = Workflow.getVersion(LOCAL_ACTIVITIES, Workflow.DEFAULT_VERSION,
+                LOCAL_ACTIVITIES_VERSION) >= LOCAL_ACTIVITIES_VERSION;
+        List<String> localSteps = localActivities
+                ? Arrays.asList(Workflow.sideEffect(String[].class, ActivityStubsProvider::getLocalSteps))
+                : List.of();
+
+        // Slim requests, recorded once so replay ignores later config changes
+        slimPayloads = Workflow.getVersion(SLIM_PAYLOADS, Workflow.DEFAULT_VERSION,
+                SLIM_PAYLOADS_VERSION) >= SLIM_PAYLOADS_VERSION
+                && Workflow.sideEffect(Boolean.class, ActivityStubsProvider::isSlimPayloads);
+
+        // Parallel compensations, recorded once so replay ignores later config changes
+        completeCompensation = Workflow.getVersion(COMPLETE_COMPENSATION, Workflow.DEFAULT_VERSION,
+                COMPLETE_COMPENSATION_VERSION) >= COMPLETE_COMPENSATION_VERSION;
+        boolean parallelCompensation = completeCompensation
+                && Workflow.sideEffect(Boolean.class, ActivityStubsProvider::isParallelCompensation);
+
         // Initialize the saga for potential compensations
-        Saga saga = new Saga(new Saga.Options.Builder().build());
+        Saga saga = new Saga(new Saga.Options.Builder()
+                .setParallelCompensation(parallelCompensation)
+                .setContinueWithError(parallelCompensation)
+                .build());
 
         try {
 
+            // 0. Validate the order request
+            if (localSteps.contains(PurchaseOrderLocalActivities.VALIDATION)) {
+                localActivity.validateOrder(orderCtx);
+            }
+
             // 1. Send the acknowledgement of the order request
-            sendOrderReceivedEmail(orderCtx);
+            if (!slimPayloads) {
+                sendOrderReceivedEmail(orderCtx, notifications);
+            }
 
             // 2. Create the initial order record
             CreateOrderResponse newOrder = generateProductOrder(orderCtx);
+            createdOrder = newOrder;
 
             // Set order number into context
             orderCtx = orderCtx.toBuilder()
                     .orderNumber(newOrder.getOrderNumber())
                     .status(newOrder.getStatus())
                     .build();
+            updateStatus(status.toBuilder()
+                    .step(PurchaseOrderStep.ORDER_CREATED)
+                    .orderNumber(newOrder.getOrderNumber())
+                    .build());
+
+            // Slim requests need the products stored with the order
+            if (slimPayloads) {
+                sendOrderReceivedEmail(orderCtx, notifications);
+            }
 
             // 3. Calculate the order total
-            double orderTotal = calculateTotalPrice(orderCtx.getProducts());
+            // Claim checked products are resolved by the activity, not on the workflow thread
+            boolean localPrice = localSteps.contains(PurchaseOrderLocalActivities.PRICE)
+                    || orderCtx.getProducts() instanceof ClaimCheckedProductList
+                            && Workflow.getVersion(CLAIM_CHECKED_PRODUCTS, Workflow.DEFAULT_VERSION,
+                                    CLAIM_CHECKED_PRODUCTS_VERSION) >= CLAIM_CHECKED_PRODUCTS_VERSION;
+            double orderTotal = localPrice
+                    ? localActivity.calculateOrderTotal(orderCtx.getProducts())
+                    : calculateTotalPrice(orderCtx.getProducts());
 
             // Set the total into the context
             orderCtx = orderCtx
@@ -112,49 +291,127 @@ public class PurchaseOrderWorkflowImpl implements PurchaseOrderWorkflow {
                     .orderTotal(orderTotal)
                     .build();
 
-            // 4. Charge the credit card
-            // This could throw an error for something like
-            // INVALID_CARD_INFO, PAYMENT_DECLINED, etc.
-            // In the REAL WORLD this would call out to a 3rd party service
-            // We are just managing our own service for the demo
-            debitCreditCard(saga, orderCtx);
-
-            // 5. Check with warehouse to see if the products are in stock - fail if not
-            // If this fails, we compensate the customers credit card and reverse the charge
-            // For this demo we are choosing to check inventory after charging the customer
-            // for the products.
-            // In a REAL WORLD scenario, this might be done before charging the customer
-
-            /** NOTE: Any exception after this point will cause the compensation to run **/
-            CheckInventoryRequest invRequest = CheckInventoryRequest.builder()
-                    .products(orderCtx.getProducts())
-                    .build();
-
-            warehouseActivity.checkInventory(invRequest);
+            boolean authorizeCapture = Workflow.getVersion(AUTHORIZE_CAPTURE, Workflow.DEFAULT_VERSION,
+                    AUTHORIZE_CAPTURE_VERSION) >= AUTHORIZE_CAPTURE_VERSION;
+            if (authorizeCapture) {
+                // 4. Authorize the card while reserving the inventory, capture once both succeed
+                /** NOTE: Any exception after this point will cause the compensation to run **/
+                authorizeAndReserve(saga, orderCtx);
+                updateStatus(status.toBuilder().step(PurchaseOrderStep.PAYMENT_CHARGED).build());
+                updateStatus(status.toBuilder().step(PurchaseOrderStep.INVENTORY_CONFIRMED).build());
+            } else {
+                // 4. Charge the credit card
+                // This could throw an error for something like
+                // INVALID_CARD_INFO, PAYMENT_DECLINED, etc.
+                // In the REAL WORLD this would call out to a 3rd party service
+                // We are just managing our own service for the demo
+                debitCreditCard(saga, orderCtx);
+                updateStatus(status.toBuilder().step(PurchaseOrderStep.PAYMENT_CHARGED).build());
+
+                // 5. Check with warehouse to see if the products are in stock - fail if not
+                // If this fails, we compensate the customers credit card and reverse the charge
+                // For this demo we are choosing to check inventory after charging the customer
+                // for the products.
+                // In a REAL WORLD scenario, this might be done before charging the customer
+
+                /** NOTE: Any exception after this point will cause the compensation to run **/
+                CheckInventoryRequest invRequest = CheckInventoryRequest.builder()
+                        .transactionId(orderCtx.getTransactionId())
+                        .products(requestProducts(orderCtx))
+                        .build();
+
+                warehouseActivity.checkInventory(invRequest);
+                if (completeCompensation) {
+                    saga.addCompensation(() -> warehouseCompensation.releaseInventory(invRequest));
+                }
+                updateStatus(status.toBuilder().step(PurchaseOrderStep.INVENTORY_CONFIRMED).build());
+            }
 
             // 6. get the shipping information/tracking number from the shipper
+            // Local activity inputs are not recorded, they always get the products
+            boolean localTracking = localSteps.contains(PurchaseOrderLocalActivities.TRACKING_NUMBER);
             CreateTrackingNumberRequest trackRequest = CreateTrackingNumberRequest.builder()
-                    .products(orderCtx.getProducts())
+                    .transactionId(orderCtx.getTransactionId())
+                    .products(localTracking ? orderCtx.getProducts() : requestProducts(orderCtx))
                     .build();
 
             // Add it into the order context
-            String trackingNumber = shipmentActivity.createTrackingNumber(trackRequest);
+            String trackingNumber = localTracking
+                    ? localActivity.createTrackingNumber(trackRequest)
+                    : shipmentActivity.createTrackingNumber(trackRequest);
+            if (completeCompensation && !localTracking) {
+                // Local tracking numbers are only generated, there is no shipment to cancel
+                CancelShipmentRequest cancelRequest = CancelShipmentRequest.builder()
+                        .transactionId(orderCtx.getTransactionId())
+                        .trackingNumber(trackingNumber)
+                        .build();
+                saga.addCompensation(() -> shipmentCompensation.cancelShipment(cancelRequest));
+            }
             orderCtx = orderCtx.toBuilder()
                     .trackingNumber(trackingNumber)
                     .build();
+            updateStatus(status.toBuilder()
+                    .step(PurchaseOrderStep.TRACKING_NUMBER_ASSIGNED)
+                    .trackingNumber(trackingNumber)
+                    .build());
 
             // 7. Save order history and send out email
-            completeOrder(orderCtx);
+            completeOrder(orderCtx, notifications);
+            updateStatus(status.toBuilder().step(PurchaseOrderStep.COMPLETED).build());
+
+            // 8. Wait for the emails still in flight
+            awaitNotifications(notifications);
 
         } catch (TemporalFailure e) {
             log.error(ExceptionUtils.getRootCauseMessage(e), e);
             PurchaseOrderContext finalOrderCtx = orderCtx; // Workaround for "effectively final" requirement
-            Workflow.newDetachedCancellationScope(
-                    () -> cleanup(e, saga, finalOrderCtx, finalOrderCtx.getTransactionId())).run();
+            Workflow.newDetachedCancellationScope(() -> {
+                cleanup(e, saga, finalOrderCtx, finalOrderCtx.getTransactionId());
+                awaitNotificationsOnFailure(notifications, finalOrderCtx.getTransactionId());
+            }).run();
             throw e;
         }
     }
 
+    /**
+     * Returns the current status of the order.
+     *
+     * @return {@link PurchaseOrderStatus}, {@code null} until the workflow has
+     *         started processing the order
+     */
+    @Override
+    public PurchaseOrderStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Waits until the order record is created, or the order failed before.
+     *
+     * @return {@link CreateOrderResponse} of the created order
+     * @throws ApplicationFailure of type {@value #ORDER_NOT_CREATED} if the order
+     *                            failed first
+     */
+    @Override
+    public CreateOrderResponse awaitOrderCreated() {
+        Workflow.await(() -> createdOrder != null
+                || (status != null && status.getStep() == PurchaseOrderStep.FAILED));
+        if (createdOrder == null) {
+            throw ApplicationFailure.newNonRetryableFailure(
+                    "Order failed before it was created: " + status.getFailureReason(), ORDER_NOT_CREATED);
+        }
+        return createdOrder;
+    }
+
+    /**
+     * Updates the status of the order and publishes the step transition.
+     *
+     * @param newStatus the new status of the order
+     */
+    private void updateStatus(PurchaseOrderStatus newStatus) {
+        status = newStatus;
+        PurchaseOrderProgress.publish(newStatus);
+    }
+
     /**
      * Calculates the total price for a list of products based on quantity and
      * price.
@@ -168,6 +425,16 @@ public class PurchaseOrderWorkflowImpl implements PurchaseOrderWorkflow {
                 .sum();
     }
 
+    /**
+     * Returns the products to send in an activity request.
+     *
+     * @param ctx {@link PurchaseOrderContext}
+     * @return the products of the order, {@code null} for slim requests
+     */
+    private List<Product> requestProducts(PurchaseOrderContext ctx) {
+        return slimPayloads ? null : ctx.getProducts();
+    }
+
     /**
      * Creates a new order with some initial information from the
      * request.
@@ -194,18 +461,79 @@ public class PurchaseOrderWorkflowImpl implements PurchaseOrderWorkflow {
     /**
      * Sends the order received email
      *
-     * @param purchaseCtx {@link PurchaseOrderContext}
+     * @param purchaseCtx   {@link PurchaseOrderContext}
+     * @param notifications emails in flight to add the email to, {@code null} to
+     *                      send it synchronously
      */
-    private void sendOrderReceivedEmail(PurchaseOrderContext purchaseCtx) {
+    private void sendOrderReceivedEmail(PurchaseOrderContext purchaseCtx, List<Promise<Void>> notifications) {
         log.info("Sending order request received notification");
         OrderReceivedEmailNotificationRequest orderRcvReq = OrderReceivedEmailNotificationRequest.builder()
                 .transactionNumber(purchaseCtx.getTransactionId())
                 .customerEmail(purchaseCtx.getCustomerEmail())
                 .orderDate(purchaseCtx.getRequestDate())
-                .products(purchaseCtx.getProducts())
+                .products(requestProducts(purchaseCtx))
                 .build();
 
-        notificationActivity.sendOrderReceivedEmail(orderRcvReq);
+        if (notifications != null) {
+            notifications.add(Async.procedure(notificationActivity::sendOrderReceivedEmail, orderRcvReq));
+        } else {
+            notificationActivity.sendOrderReceivedEmail(orderRcvReq);
+        }
+    }
+
+    /**
+     * Waits for the emails sent concurrently with the order. A failed email does
+     * not fail the order, which is already complete.
+     *
+     * @param notifications emails in flight, {@code null} if emails were sent
+     *                      synchronously
+     */
+    private void awaitNotifications(List<Promise<Void>> notifications) {
+        if (notifications == null) {
+            return;
+        }
+        for (Promise<Void> notification : notifications) {
+            try {
+                notification.get();
+            } catch (ActivityFailure e) {
+                log.warnf("Customer notification failed: %s", ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+    }
+
+    /**
+     * Waits for the emails still in flight when the order failed, for at most
+     * {@link #FAILED_ORDER_NOTIFICATION_TIMEOUT}. A failed email, or one still
+     * pending at the timeout, is only logged.
+     *
+     * @param notifications emails in flight, {@code null} if emails were sent
+     *                      synchronously
+     * @param transactionId the transaction id of the order
+     */
+    private void awaitNotificationsOnFailure(List<Promise<Void>> notifications, UUID transactionId) {
+        if (notifications == null || notifications.isEmpty()) {
+            return;
+        }
+        int version = Workflow.getVersion(AWAIT_NOTIFICATIONS_ON_FAILURE, Workflow.DEFAULT_VERSION,
+                AWAIT_NOTIFICATIONS_ON_FAILURE_VERSION);
+        if (version < AWAIT_NOTIFICATIONS_ON_FAILURE_VERSION) {
+            return;
+        }
+        boolean settled = Workflow.await(FAILED_ORDER_NOTIFICATION_TIMEOUT,
+                () -> notifications.stream().allMatch(Promise::isCompleted));
+        for (Promise<Void> notification : notifications) {
+            if (!notification.isCompleted()) {
+                continue;
+            }
+            RuntimeException failure = notification.getFailure();
+            if (failure != null) {
+                log.warnf("Customer notification failed: %s", ExceptionUtils.getRootCauseMessage(failure));
+            }
+        }
+        if (!settled) {
+            log.warnf("Customer notifications for TX id %s still pending after %s", transactionId,
+                    FAILED_ORDER_NOTIFICATION_TIMEOUT);
+        }
     }
 
     /**
@@ -217,6 +545,9 @@ public class PurchaseOrderWorkflowImpl implements PurchaseOrderWorkflow {
      * 2. Handling order failure if the exception is not a cancellation.
      * 3. Logging the cleanup process.
      *
+     * With complete compensation, the compensations and the order failure run
+     * concurrently.
+     *
      * @param e             The exception that triggered the cleanup.
      * @param saga          The Saga object containing compensation actions.
      * @param ctx           The OrderPurchaseContext containing order details.
@@ -225,6 +556,29 @@ public class PurchaseOrderWorkflowImpl implements PurchaseOrderWorkflow {
     private void cleanup(Exception e, Saga saga, PurchaseOrderContext ctx, UUID transactionId) {
         log.infof("Performing cleanup operations for TX id %s", transactionId);
 
+        updateStatus(status.toBuilder()
+                .step(PurchaseOrderStep.FAILED)
+                .failureReason(failureReason(e))
+                .build());
+
+        if (completeCompensation) {
+            // Compensations and the failed order do not depend on each other
+            List<Promise<Void>> steps = new ArrayList<>();
+            steps.add(Async.procedure(saga::compensate));
+            if (!(e instanceof CanceledFailure) && ctx != null) {
+                steps.addAll(failOrderAsync(e, ctx));
+            }
+            for (Promise<Void> step : steps) {
+                try {
+                    step.get();
+                } catch (Exception cpe) {
+                    log.error("Failed to complete cleanup step!", cpe);
+                }
+            }
+            log.infof("Finished cleanup operations for TX id %s", transactionId);
+            return;
+        }
+
         // Execute compensation actions
         try {
             if (saga != null) {
@@ -255,54 +609,96 @@ public class PurchaseOrderWorkflowImpl implements PurchaseOrderWorkflow {
      */
     private void failOrder(Exception e, PurchaseOrderContext ctx) {
 
-        // Default to SYSTEM error
-        OrderFailureReason reason = OrderFailureReason.SYSTEM_ERROR;
+        log.infof("Marking order as failed with TX id %s", ctx.getTransactionId());
 
-        // Check for specific errors
-        if (TemporalActivityExceptionChecker.isExceptionType(e, PaymentDeclinedException.class)) {
-            reason = OrderFailureReason.PAYMENT_DECLINED;
-        } else if (TemporalActivityExceptionChecker.isExceptionType(e, BadPaymentInfoException.class)) {
-            reason = OrderFailureReason.INVALID_PAYMENT_METHOD;
-        } else if (TemporalActivityExceptionChecker.isExceptionType(e, OutOfStockException.class)) {
-            reason = OrderFailureReason.OUT_OF_STOCK_ITEMS;
-        }
+        // Call activity
+        orderActivity.markOrderAsFailed(markOrderFailedRequest(e, ctx));
 
-        log.infof("Marking order as failed with TX id %s", ctx.getTransactionId());
+        // Call activity to send email
+        notificationActivity.sendOrderErrorEmail(orderErrorEmailRequest(ctx));
+    }
 
-        // Mark the order as failed
-        MarkOrderFailedRequest req = MarkOrderFailedRequest.builder()
+    /**
+     * Marks the order as failed and sends the error email concurrently.
+     *
+     * @param e   The exception that caused the order to fail
+     * @param ctx {@link PurchaseOrderContext}
+     * @return the order update and the email in flight
+     */
+    private List<Promise<Void>> failOrderAsync(Exception e, PurchaseOrderContext ctx) {
+
+        log.infof("Marking order as failed with TX id %s while sending the error email", ctx.getTransactionId());
+
+        return List.of(
+                Async.procedure(orderActivity::markOrderAsFailed, markOrderFailedRequest(e, ctx)),
+                Async.procedure(notificationActivity::sendOrderErrorEmail, orderErrorEmailRequest(ctx)));
+    }
+
+    /**
+     * Creates the request marking the order as failed
+     *
+     * @param e   The exception that caused the order to fail
+     * @param ctx {@link PurchaseOrderContext}
+     * @return {@link MarkOrderFailedRequest}
+     */
+    private MarkOrderFailedRequest markOrderFailedRequest(Exception e, PurchaseOrderContext ctx) {
+        return MarkOrderFailedRequest.builder()
                 .orderNumber(ctx.getOrderNumber())
                 .transactionId(ctx.getTransactionId())
-                .reason(reason)
+                .reason(failureReason(e))
                 .build();
+    }
 
-        // Call activity
-        orderActivity.markOrderAsFailed(req);
-
-        // send error email
-        OrderErrorEmailNotificationRequest emailRequest = OrderErrorEmailNotificationRequest.builder()
+    /**
+     * Creates the request of the order error email
+     *
+     * @param ctx {@link PurchaseOrderContext}
+     * @return {@link OrderErrorEmailNotificationRequest}
+     */
+    private OrderErrorEmailNotificationRequest orderErrorEmailRequest(PurchaseOrderContext ctx) {
+        return OrderErrorEmailNotificationRequest.builder()
                 .orderDate(ctx.getRequestDate())
                 .customerEmail(ctx.getCustomerEmail())
                 .orderNumber(ctx.getOrderNumber())
                 .transactionNumber(ctx.getTransactionId())
                 .build();
+    }
 
-        // Call activity to send email
-        notificationActivity.sendOrderErrorEmail(emailRequest);
+    /**
+     * Determines why the order failed from the exception which failed it.
+     *
+     * @param e The exception that caused the order to fail
+     * @return the {@link OrderFailureReason}, {@link OrderFailureReason#SYSTEM_ERROR}
+     *         if the exception is not a known business failure
+     */
+    private OrderFailureReason failureReason(Exception e) {
+        if (TemporalActivityExceptionChecker.isExceptionType(e, PaymentDeclinedException.class)) {
+            return OrderFailureReason.PAYMENT_DECLINED;
+        } else if (TemporalActivityExceptionChecker.isExceptionType(e, BadPaymentInfoException.class)) {
+            return OrderFailureReason.INVALID_PAYMENT_METHOD;
+        } else if (TemporalActivityExceptionChecker.isExceptionType(e, OutOfStockException.class)) {
+            return OrderFailureReason.OUT_OF_STOCK_ITEMS;
+        }
+        // Default to SYSTEM error
+        return OrderFailureReason.SYSTEM_ERROR;
     }
 
     /**
      * Performs operations when an order completes successfully
      *
-     * @param ctx {@link PurchaseOrderContext}
+     * @param ctx           {@link PurchaseOrderContext}
+     * @param notifications emails in flight to add the confirmation email to,
+     *                      {@code null} to send it synchronously after the
+     *                      order is saved
      */
-    private void completeOrder(PurchaseOrderContext ctx) {
+    private void completeOrder(PurchaseOrderContext ctx, List<Promise<Void>> notifications) {
 
         log.infof("Marking order %s as complete with TX id %s", ctx.getOrderNumber(), ctx.getTransactionId());
 
         /** Save the final order to the database **/
+        // The order already holds the customer and the products of a slim request
         MarkOrderCompleteRequest completeReq = MarkOrderCompleteRequest.builder()
-                .products(ctx.getProducts())
+                .products(requestProducts(ctx))
                 .orderDate(ctx.getRequestDate())
                 .orderNumber(ctx.getOrderNumber())
                 .transactionId(ctx.getTransactionId())
@@ -310,8 +706,6 @@ public class PurchaseOrderWorkflowImpl implements PurchaseOrderWorkflow {
                 .orderTotal(ctx.getOrderTotal())
                 .build();
 
-        orderActivity.markOrderAsComplete(completeReq);
-
         /** Send NOTIFICATION ***/
         // Create request
         OrderSuccessEmailNotificationRequest emailRequest = OrderSuccessEmailNotificationRequest.builder()
@@ -319,16 +713,121 @@ public class PurchaseOrderWorkflowImpl implements PurchaseOrderWorkflow {
                 .transactionNumber(ctx.getTransactionId())
                 .orderNumber(ctx.getOrderNumber())
                 .orderDate(ctx.getRequestDate())
-                .products(ctx.getProducts())
+                .products(requestProducts(ctx))
                 .trackingNumber(ctx.getTrackingNumber())
                 .orderTotal(ctx.getOrderTotal())
                 .build();
 
+        if (notifications != null) {
+            // Executions which sent the email while completing the order replay that way
+            boolean confirmAfterComplete = Workflow.getVersion(CONFIRM_AFTER_COMPLETE, Workflow.DEFAULT_VERSION,
+                    CONFIRM_AFTER_COMPLETE_VERSION) >= CONFIRM_AFTER_COMPLETE_VERSION;
+            if (confirmAfterComplete) {
+                orderActivity.markOrderAsComplete(completeReq);
+                log.infof("Order updated..Sending notification email to %s", ctx.getCustomerEmail());
+                notifications.add(Async.procedure(notificationActivity::sendOrderSuccessEmail, emailRequest));
+                return;
+            }
+            log.infof("Sending notification email to %s while updating the order", ctx.getCustomerEmail());
+            notifications.add(Async.procedure(notificationActivity::sendOrderSuccessEmail, emailRequest));
+            orderActivity.markOrderAsComplete(completeReq);
+            return;
+        }
+
+        orderActivity.markOrderAsComplete(completeReq);
+
         // Call activity to send email
         log.infof("Order updated..Sending notification email to %s", ctx.getCustomerEmail());
         notificationActivity.sendOrderSuccessEmail(emailRequest);
     }
 
+    /**
+     * Authorizes the credit card and reserves the inventory concurrently, then
+     * captures the payment.
+     * <p>
+     * Both calls are awaited before any failure is rethrown, so the
+     * compensation of whichever succeeded is always registered: the inventory is
+     * released and the authorization voided, or refunded once captured.
+     *
+     * @param saga Saga to add compensation actions
+     * @param ctx  {@link PurchaseOrderContext}
+     */
+    private void authorizeAndReserve(Saga saga, PurchaseOrderContext ctx) {
+
+        log.info("Authorizing credit card and reserving inventory");
+
+        DebitCreditCardRequest cardRequest = DebitCreditCardRequest.builder()
+                .amount(ctx.getOrderTotal())
+                .creditCard(ctx.getCreditCard())
+                .customerEmail(ctx.getCustomerEmail())
+                .transactionId(ctx.getTransactionId())
+                .requestedByHost(ctx.getRequestedByHost())
+                .requestedByUser(ctx.getRequestedByUser())
+                .build();
+        CheckInventoryRequest invRequest = CheckInventoryRequest.builder()
+                .transactionId(ctx.getTransactionId())
+                .products(requestProducts(ctx))
+                .build();
+
+        Promise<AuthorizePaymentResponse> authorization = Async.function(paymentActivity::authorizePayment,
+                cardRequest);
+        Promise<Void> reservation = Async.procedure(warehouseActivity::checkInventory, invRequest);
+
+        TemporalFailure failure = null;
+        try {
+            reservation.get();
+            saga.addCompensation(() -> warehouseCompensation.releaseInventory(invRequest));
+        } catch (TemporalFailure e) {
+            failure = e;
+        }
+
+        AuthorizePaymentResponse authorized = null;
+        try {
+            authorized = authorization.get();
+            UUID authorizationCode = authorized.getAuthorizationCode();
+            saga.addCompensation(() -> compensatePayment(ctx, authorizationCode));
+        } catch (TemporalFailure e) {
+            // The payment failure explains the order failure best
+            failure = e;
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+
+        paymentActivity.capturePayment(CapturePaymentRequest.builder()
+                .transactionId(ctx.getTransactionId())
+                .authorizationCode(authorized.getAuthorizationCode())
+                .amount(authorized.getAuthorizedAmount())
+                .requestedByHost(ctx.getRequestedByHost())
+                .requestedByUser(ctx.getRequestedByUser())
+                .build());
+        paymentCaptured = true;
+    }
+
+    /**
+     * Refunds the payment once captured, or else voids the authorization.
+     *
+     * @param ctx               {@link PurchaseOrderContext}
+     * @param authorizationCode code of the authorization
+     */
+    private void compensatePayment(PurchaseOrderContext ctx, UUID authorizationCode) {
+        if (paymentCaptured) {
+            paymentCompensation.reversePaymentTransactions(ReverseActionsForTransactionRequest.builder()
+                    .requestedByHost(ctx.getRequestedByHost())
+                    .requestedByUser(ctx.getRequestedByUser())
+                    .transactionId(ctx.getTransactionId())
+                    .build());
+        } else {
+            paymentCompensation.voidPayment(VoidPaymentRequest.builder()
+                    .requestedByHost(ctx.getRequestedByHost())
+                    .requestedByUser(ctx.getRequestedByUser())
+                    .transactionId(ctx.getTransactionId())
+                    .authorizationCode(authorizationCode)
+                    .build());
+        }
+    }
+
     /**
      * Process the credit card specified in the order context
      *
@@ -349,7 +848,7 @@ public class PurchaseOrderWorkflowImpl implements PurchaseOrderWorkflow {
                 .build();
 
         // Create the reversal in case of compensations later
-        saga.addCompensation(() -> paymentActivity.reversePaymentTransactions(reverseRequest));
+        saga.addCompensation(() -> paymentCompensation.reversePaymentTransactions(reverseRequest));
 
         // debit card and return some sort of auth number or whatever
         DebitCreditCardRequest cardRequest = DebitCreditCardRequest.builder()
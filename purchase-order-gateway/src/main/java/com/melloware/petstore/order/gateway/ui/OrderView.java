@@ -5,7 +5,6 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.faces.application.FacesMessage;
@@ -27,6 +26,7 @@ import com.melloware.petstore.common.models.enums.PaymentType;
 import com.melloware.petstore.common.models.json.CreditCardInfo;
 import com.melloware.petstore.common.models.json.OrderPurchaseRequest;
 import com.melloware.petstore.common.models.json.Product;
+import com.melloware.petstore.common.utils.IdGenerator;
 import com.melloware.petstore.order.gateway.PurchaseOrderGatewayResource;
 import com.melloware.petstore.order.gateway.filters.RequestIdFilters;
 
@@ -115,7 +115,7 @@ public class OrderView implements Serializable {
          */
         public void order() {
                 // Generate a unique request ID
-                String requestId = UUID.randomUUID().toString();
+                String requestId = IdGenerator.newRequestId();
 
                 // Retrieve IP address from the incoming request
                 final HttpServletRequest httpRequest = (HttpServletRequest) FacesContext.getCurrentInstance()
@@ -150,7 +150,7 @@ public class OrderView implements Serializable {
                                                 .price(price.doubleValue())
                                                 .build()))
                                 .build();
-                purchaseOrderGatewayResource.purchaseOrder(request);
+                purchaseOrderGatewayResource.purchaseOrder(request, null);
 
                 String subject = "Your order has been placed! Please check your email for the confirmation and tracking information.";
                 FacesContext.getCurrentInstance().addMessage(null, new FacesMessage(subject));
@@ -0,0 +1,78 @@
+package com.melloware.petstore.order.gateway.temporal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.melloware.petstore.common.converter.DataConverterProducer;
+
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.testing.WorkflowReplayer;
+import io.temporal.worker.Worker;
+
+/**
+ * Replays committed purchase order histories against the current
+ * {@link PurchaseOrderWorkflowImpl}, so a workflow change missing its
+ * {@code Workflow.getVersion} gate fails the build instead of the orders in
+ * flight.
+ * <p>
+ * The histories under {@code src/test/resources/histories} were written by
+ * {@code HistoryExporter generate} of the benchmarks module, with remote steps
+ * and with local steps plus slim requests. They cover the completed order, the
+ * declined payment, the out-of-stock order voiding the authorization, and the
+ * failure after capture running every compensation. The {@code -baseline}
+ * histories were recorded by the workflow before any {@code getVersion} gate,
+ * so they check the default version of every change. Add the histories of a
+ * release before changing the workflow, and never regenerate the existing ones.
+ */
+class PurchaseOrderWorkflowReplayTest {
+
+    private static TestWorkflowEnvironment env;
+    private static Worker worker;
+
+    @BeforeAll
+    static void setUp() {
+        env = TestWorkflowEnvironment.newInstance(TestEnvironmentOptions.newBuilder()
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                        .setDataConverter(DataConverterProducer.newDataConverter(false, false, Integer.MAX_VALUE))
+                        .build())
+                .build());
+        worker = env.newWorker("replay");
+        worker.registerWorkflowImplementationTypes(PurchaseOrderWorkflowImpl.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        env.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "completed-remote.json",
+            "completed-local-slim.json",
+            "out-of-stock-local-slim.json",
+            "completion-failed-remote.json",
+            "payment-declined-remote.json",
+            "completed-baseline.json",
+            "out-of-stock-baseline.json" })
+    void replays(String file) throws Exception {
+        WorkflowReplayer.replayWorkflowExecution(history(file), worker);
+    }
+
+    private static WorkflowExecutionHistory history(String file) throws IOException {
+        try (InputStream in = PurchaseOrderWorkflowReplayTest.class.getResourceAsStream("/histories/" + file)) {
+            if (in == null) {
+                throw new IOException("Missing history " + file);
+            }
+            return WorkflowExecutionHistory.fromJson(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 import com.melloware.petstore.common.activities.shipper.ShipperActivities;
+import com.melloware.petstore.common.models.json.CancelShipmentRequest;
 import com.melloware.petstore.common.models.json.CreateTrackingNumberRequest;
 
 /**
@@ -26,4 +27,14 @@ public class ShipperActivitiesImpl implements ShipperActivities {
         return service.createTrackingNumber(request);
     }
 
+    /**
+     * Cancel the shipment of a failed order
+     * 
+     * @param request {@link CancelShipmentRequest}
+     */
+    @Override
+    public void cancelShipment(CancelShipmentRequest request) {
+        service.cancelShipment(request);
+    }
+
 }
\ No newline at end of file
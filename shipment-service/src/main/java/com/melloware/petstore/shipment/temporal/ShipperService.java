@@ -1,10 +1,12 @@
 package com.melloware.petstore.shipment.temporal;
 
-import java.util.UUID;
-
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
+import com.melloware.petstore.common.models.json.CancelShipmentRequest;
 import com.melloware.petstore.common.models.json.CreateTrackingNumberRequest;
+import com.melloware.petstore.common.orders.OrderProducts;
+import com.melloware.petstore.common.utils.IdGenerator;
 
 import lombok.extern.jbosslog.JBossLog;
 
@@ -17,6 +19,9 @@ import lombok.extern.jbosslog.JBossLog;
 @JBossLog
 public class ShipperService {
 
+    @Inject
+    OrderProducts orderProducts;
+
     /**
      * Create a tracking number
      * 
@@ -24,13 +29,25 @@ public class ShipperService {
      * @return Tracking number string
      */
     public String createTrackingNumber(CreateTrackingNumberRequest request) {
-        log.infof("Generating new tracking number for %d products", request.getProducts().size());
+        int products = orderProducts.of(request.getTransactionId(), request.getProducts()).size();
+        log.infof("Generating new tracking number for %d products", products);
 
         // We are just generating a tracking number here but in the real world you would probably be calling a third party like FedEx or UPS to start your shipment.
-        String tracker = UUID.randomUUID().toString();
+        String tracker = IdGenerator.newTrackingNumber();
 
         log.infof("Generated tracking number %s", tracker);
         return tracker;
 
     }
+
+    /**
+     * Cancel a shipment. Cancelling an unknown or already cancelled shipment does
+     * nothing, so the compensation can be retried.
+     * 
+     * @param request {@link CancelShipmentRequest}
+     */
+    public void cancelShipment(CancelShipmentRequest request) {
+        // In the real world this would void the label with the carrier
+        log.infof("Cancelled shipment %s for TX id %s", request.getTrackingNumber(), request.getTransactionId());
+    }
 }
\ No newline at end of file
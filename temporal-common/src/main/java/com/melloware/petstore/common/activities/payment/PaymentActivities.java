@@ -1,8 +1,11 @@
 package com.melloware.petstore.common.activities.payment;
 
+import com.melloware.petstore.common.models.json.AuthorizePaymentResponse;
+import com.melloware.petstore.common.models.json.CapturePaymentRequest;
 import com.melloware.petstore.common.models.json.DebitCreditCardRequest;
 import com.melloware.petstore.common.models.json.DebitCreditCardResponse;
 import com.melloware.petstore.common.models.json.ReverseActionsForTransactionRequest;
+import com.melloware.petstore.common.models.json.VoidPaymentRequest;
 
 import io.temporal.activity.ActivityInterface;
 import jakarta.validation.Valid;
@@ -23,6 +26,28 @@ public interface PaymentActivities {
      * @return {@link DebitCreditCardResponse}
      */
     DebitCreditCardResponse debitCreditCard(@Valid @NotNull DebitCreditCardRequest request);
+
+    /**
+     * Hold the amount on a credit card without charging it
+     * 
+     * @param request {@link DebitCreditCardRequest}
+     * @return {@link AuthorizePaymentResponse}
+     */
+    AuthorizePaymentResponse authorizePayment(@Valid @NotNull DebitCreditCardRequest request);
+
+    /**
+     * Charge a previously authorized amount
+     * 
+     * @param request {@link CapturePaymentRequest}
+     */
+    void capturePayment(@Valid @NotNull CapturePaymentRequest request);
+
+    /**
+     * Release an authorization which was never captured
+     * 
+     * @param request {@link VoidPaymentRequest}
+     */
+    void voidPayment(@Valid @NotNull VoidPaymentRequest request);
     
     /**
      * Reverse any transactions for the given transaction id
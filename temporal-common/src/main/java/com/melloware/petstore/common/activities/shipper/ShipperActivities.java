@@ -1,5 +1,6 @@
 package com.melloware.petstore.common.activities.shipper;
 
+import com.melloware.petstore.common.models.json.CancelShipmentRequest;
 import com.melloware.petstore.common.models.json.CreateTrackingNumberRequest;
 import io.temporal.activity.ActivityInterface;
 import jakarta.validation.Valid;
@@ -12,4 +13,11 @@ import jakarta.validation.constraints.NotNull;
 @ActivityInterface
 public interface ShipperActivities {
     String createTrackingNumber(@Valid @NotNull CreateTrackingNumberRequest request);
+
+    /**
+     * Cancel the shipment created by {@link #createTrackingNumber(CreateTrackingNumberRequest)}
+     *
+     * @param request {@link CancelShipmentRequest} with the tracking number
+     */
+    void cancelShipment(@Valid @NotNull CancelShipmentRequest request);
 }
\ No newline at end of file
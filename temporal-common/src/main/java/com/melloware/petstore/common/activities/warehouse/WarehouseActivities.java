@@ -21,4 +21,11 @@ public interface WarehouseActivities {
      * @throws Exception if any product is not in stock
      */
     void checkInventory(@Valid @NotNull CheckInventoryRequest request);
+
+    /**
+     * Put back the products reserved by a successful inventory check
+     * 
+     * @param request {@link CheckInventoryRequest} of the inventory check
+     */
+    void releaseInventory(@Valid @NotNull CheckInventoryRequest request);
 }
\ No newline at end of file
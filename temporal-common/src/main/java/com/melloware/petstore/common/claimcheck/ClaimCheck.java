@@ -0,0 +1,149 @@
+package com.melloware.petstore.common.claimcheck;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.melloware.petstore.common.models.json.Product;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Claim check of large product lists.
+ * <p>
+ * Product lists with more line items than the threshold are stored once in a
+ * {@link ClaimCheckStore} and only a reference travels through the workflow
+ * and activity payloads. The key is the SHA-256 of the stored content, so the
+ * same list is stored once no matter how many payloads carry it.
+ * <p>
+ * Payloads are serialized and deserialized by Temporal outside of CDI, so the
+ * {@link ClaimCheckStore} bean and the settings are handed over here once at
+ * startup. Resolved lists are kept in a small per-worker LRU cache, as the same
+ * order is usually handled by several activities of the same worker.
+ */
+@UtilityClass
+public class ClaimCheck {
+
+    // Storage format of the product lists, independent of the payload encoding
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final TypeReference<List<Product>> PRODUCT_LIST = new TypeReference<>() {
+    };
+
+    // Created on first use unless configured, outside of CDI
+    private volatile ClaimCheckStore blobStore;
+    private volatile boolean enabled;
+    private volatile int threshold = Integer.MAX_VALUE;
+    private volatile Map<String, List<Product>> cache = newCache(1000);
+
+    /**
+     * Configures the claim check.
+     *
+     * @param claimCheckStore store of the product lists
+     * @param enabled         {@code false} to only resolve references, never
+     *                        create them
+     * @param threshold       number of line items above which a list is claim
+     *                        checked
+     * @param cacheSize       number of resolved lists kept in memory
+     */
+    public static void configure(ClaimCheckStore claimCheckStore, boolean enabled, int threshold, int cacheSize) {
+        blobStore = claimCheckStore;
+        ClaimCheck.enabled = enabled;
+        ClaimCheck.threshold = threshold;
+        cache = newCache(cacheSize);
+    }
+
+    /**
+     * Returns whether a list must travel as a claim check reference.
+     *
+     * @param products the product list
+     * @return {@code true} if the list is above the threshold
+     */
+    public static boolean shouldCheck(List<Product> products) {
+        return enabled && products.size() > threshold;
+    }
+
+    /**
+     * Stores a product list.
+     *
+     * @param products the product list
+     * @return the key of the stored list
+     */
+    public static String store(List<Product> products) {
+        byte[] content = serialize(products);
+        String key = sha256(content);
+        blobStore().put(key, content);
+        cache.put(key, List.copyOf(products));
+        return key;
+    }
+
+    /**
+     * Resolves a stored product list, from the cache when possible.
+     *
+     * @param key the key of the stored list
+     * @return the immutable product list
+     */
+    public static List<Product> resolve(String key) {
+        List<Product> products = cache.get(key);
+        if (products == null) {
+            products = deserialize(key);
+            cache.put(key, products);
+        }
+        return products;
+    }
+
+    private static byte[] serialize(List<Product> products) {
+        try {
+            return MAPPER.writeValueAsBytes(products);
+        } catch (IOException e) {
+            throw new ClaimCheckException("Unable to serialize product list", e);
+        }
+    }
+
+    private static List<Product> deserialize(String key) {
+        try {
+            return List.copyOf(MAPPER.readValue(blobStore().get(key), PRODUCT_LIST));
+        } catch (IOException e) {
+            throw new ClaimCheckException("Unable to deserialize claim check " + key, e);
+        }
+    }
+
+    private static ClaimCheckStore blobStore() {
+        if (blobStore == null) {
+            synchronized (ClaimCheck.class) {
+                if (blobStore == null) {
+                    blobStore = new FileSystemClaimCheckStore(
+                            Path.of(System.getProperty("java.io.tmpdir"), "petstore-claim-check"));
+                }
+            }
+        }
+        return blobStore;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Map<String, List<Product>> newCache(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Product>> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+}
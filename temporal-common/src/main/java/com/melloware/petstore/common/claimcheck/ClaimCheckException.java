@@ -0,0 +1,15 @@
+package com.melloware.petstore.common.claimcheck;
+
+/**
+ * Thrown when claim-checked content cannot be stored or resolved.
+ */
+public class ClaimCheckException extends RuntimeException {
+
+    public ClaimCheckException(String message) {
+        super(message);
+    }
+
+    public ClaimCheckException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,146 @@
+package com.melloware.petstore.common.claimcheck;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleDeserializers;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.module.SimpleSerializers;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.melloware.petstore.common.models.json.Product;
+
+/**
+ * Jackson module applying the {@link ClaimCheck} to every {@code List<Product>}
+ * property of the payload models.
+ * <p>
+ * Lists above the threshold are written as a reference object
+ * <code>{"claimCheck":"&lt;key&gt;","size":n}</code> instead of an array. On
+ * read, arrays become regular lists and references become a
+ * {@link ClaimCheckedProductList}, without reading the store. Both forms are
+ * always readable.
+ */
+public class ClaimCheckModule extends SimpleModule {
+
+    private static final String KEY_FIELD = "claimCheck";
+    private static final String SIZE_FIELD = "size";
+
+    public ClaimCheckModule() {
+        super("ClaimCheckModule");
+        setSerializers(new SimpleSerializers() {
+            @Override
+            public JsonSerializer<?> findCollectionSerializer(SerializationConfig config, CollectionType type,
+                    BeanDescription beanDesc, TypeSerializer elementTypeSerializer,
+                    JsonSerializer<Object> elementValueSerializer) {
+                return isProductList(type) ? new ProductListSerializer() : null;
+            }
+        });
+        setDeserializers(new SimpleDeserializers() {
+            @Override
+            public JsonDeserializer<?> findCollectionDeserializer(CollectionType type, DeserializationConfig config,
+                    BeanDescription beanDesc, TypeDeserializer elementTypeDeserializer,
+                    JsonDeserializer<?> elementDeserializer) {
+                return isProductList(type) ? new ProductListDeserializer() : null;
+            }
+        });
+    }
+
+    private static boolean isProductList(CollectionType type) {
+        return List.class.isAssignableFrom(type.getRawClass())
+                && type.getContentType().getRawClass() == Product.class;
+    }
+
+    /**
+     * Writes a product list as an array, or as a reference when it is above the
+     * threshold or already claim checked.
+     */
+    static class ProductListSerializer extends StdSerializer<List<Product>> {
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        ProductListSerializer() {
+            super((Class<List<Product>>) (Class) List.class);
+        }
+
+        @Override
+        public void serialize(List<Product> products, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            String key = null;
+            if (products instanceof ClaimCheckedProductList checked) {
+                key = checked.getKey();
+            } else if (ClaimCheck.shouldCheck(products)) {
+                key = ClaimCheck.store(products);
+            }
+
+            if (key != null) {
+                gen.writeStartObject();
+                gen.writeStringField(KEY_FIELD, key);
+                gen.writeNumberField(SIZE_FIELD, products.size());
+                gen.writeEndObject();
+                return;
+            }
+
+            gen.writeStartArray(products, products.size());
+            for (Product product : products) {
+                provider.defaultSerializeValue(product, gen);
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    /**
+     * Reads a product list from either an array or a reference.
+     */
+    static class ProductListDeserializer extends StdDeserializer<List<Product>> {
+
+        ProductListDeserializer() {
+            super(List.class);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<Product> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.START_ARRAY) {
+                List<Product> products = new ArrayList<>();
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    products.add(p.currentToken() == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Product.class));
+                }
+                return products;
+            }
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                return (List<Product>) ctxt.handleUnexpectedToken(List.class, p);
+            }
+
+            String key = null;
+            int size = 0;
+            for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                if (KEY_FIELD.equals(field)) {
+                    key = p.getValueAsString();
+                } else if (SIZE_FIELD.equals(field)) {
+                    size = p.getValueAsInt();
+                } else {
+                    p.skipChildren();
+                }
+            }
+            if (key == null) {
+                return (List<Product>) ctxt.handleUnexpectedToken(List.class, p);
+            }
+            // Resolved by whichever activity reads the products
+            return new ClaimCheckedProductList(key, size);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.melloware.petstore.common.claimcheck;
+
+/**
+ * Blob store holding the content behind a claim check.
+ * <p>
+ * Keys are derived from the content itself, or name content which never
+ * changes once written, so storing the same content twice is harmless and
+ * implementations do not need to coordinate writers.
+ */
+public interface ClaimCheckStore {
+
+    /**
+     * Stores content under a key, doing nothing if the key already exists.
+     *
+     * @param key     the content key
+     * @param content the content
+     */
+    void put(String key, byte[] content);
+
+    /**
+     * Reads the content stored under a key.
+     *
+     * @param key the content key
+     * @return the content
+     * @throws ClaimCheckException if there is no content for the key
+     */
+    byte[] get(String key);
+}
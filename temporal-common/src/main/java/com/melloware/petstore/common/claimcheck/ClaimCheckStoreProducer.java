@@ -0,0 +1,81 @@
+package com.melloware.petstore.common.claimcheck;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.arc.DefaultBean;
+
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Produces the {@link ClaimCheckStore} of the service.
+ * <p>
+ * The default store is a {@link FileSystemClaimCheckStore} in
+ * {@code petstore.temporal.claim-check.directory}. Every
+ * {@code petstore.temporal.claim-check.purge-interval} it deletes the blobs not
+ * written for {@code petstore.temporal.claim-check.ttl}, which must be longer
+ * than any order runs, so its activities can still read the products. A service can replace the store by producing its own
+ * {@link ClaimCheckStore} bean, for example on object storage shared across
+ * hosts.
+ */
+@ApplicationScoped
+@JBossLog
+public class ClaimCheckStoreProducer {
+
+    @ConfigProperty(name = "petstore.temporal.claim-check.directory",
+            defaultValue = "${java.io.tmpdir}/petstore-claim-check")
+    String directory;
+
+    @ConfigProperty(name = "petstore.temporal.claim-check.ttl", defaultValue = "7d")
+    Duration ttl;
+
+    @ConfigProperty(name = "petstore.temporal.claim-check.purge-interval", defaultValue = "1h")
+    Duration purgeInterval;
+
+    private ScheduledExecutorService purger;
+
+    @Produces
+    @Singleton
+    @DefaultBean
+    ClaimCheckStore claimCheckStore() {
+        FileSystemClaimCheckStore store = new FileSystemClaimCheckStore(Path.of(directory));
+        log.infof("Claim check store: %s, blobs kept for %s", directory, ttl);
+
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "claim-check-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = purgeInterval.toMillis();
+        purger.scheduleWithFixedDelay(() -> purge(store), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return store;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    private void purge(FileSystemClaimCheckStore store) {
+        try {
+            int purged = store.purgeOlderThan(ttl);
+            if (purged > 0) {
+                log.debugf("Purged %d claim check blobs older than %s", purged, ttl);
+            }
+        } catch (RuntimeException e) {
+            log.warnf("Unable to purge the claim check store: %s", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.melloware.petstore.common.claimcheck;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+
+import com.melloware.petstore.common.models.json.Product;
+
+import lombok.Getter;
+
+/**
+ * Read-only product list read from a claim check reference.
+ * <p>
+ * Reading the payload only keeps the reference, the products are resolved from
+ * the {@link ClaimCheck} store when an element is first read. Workflow code
+ * hands the list on to its activities without reading it, so the blob is only
+ * read by the activity that needs the products, never on the workflow thread
+ * or during replay. A missing or unreadable blob then fails that activity with
+ * a {@link ClaimCheckException}. Passing the list on to another payload re-uses
+ * the reference, so forwarded products are never stored again.
+ */
+public class ClaimCheckedProductList extends AbstractList<Product> {
+
+    /**
+     * Key of the stored list
+     */
+    @Getter
+    private final String key;
+
+    private final int size;
+
+    // Resolved on first read
+    private volatile List<Product> products;
+
+    public ClaimCheckedProductList(String key, int size) {
+        this.key = key;
+        this.size = size;
+    }
+
+    @Override
+    public Product get(int index) {
+        Objects.checkIndex(index, size);
+        return products().get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + size + " products in claim check " + key + "]";
+    }
+
+    private List<Product> products() {
+        List<Product> resolved = products;
+        if (resolved == null) {
+            resolved = ClaimCheck.resolve(key);
+            if (resolved.size() != size) {
+                throw new ClaimCheckException(
+                        "Claim check " + key + " holds " + resolved.size() + " products instead of " + size);
+            }
+            products = resolved;
+        }
+        return resolved;
+    }
+}
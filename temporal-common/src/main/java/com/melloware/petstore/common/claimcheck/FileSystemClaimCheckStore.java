@@ -0,0 +1,103 @@
+package com.melloware.petstore.common.claimcheck;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * {@link ClaimCheckStore} keeping every blob as a file of a local directory.
+ * <p>
+ * Meant for development and tests, where every service runs on the same host
+ * or mounts the same volume. Files are written to a temporary file first and
+ * moved into place so readers never see partial content.
+ * <p>
+ * Storing content which already exists refreshes its modification time, so
+ * {@link #purgeOlderThan(Duration)} only deletes blobs no payload referenced
+ * recently.
+ */
+public class FileSystemClaimCheckStore implements ClaimCheckStore {
+
+    private final Path directory;
+
+    /**
+     * Creates a store in the given directory, creating it if needed.
+     *
+     * @param directory the directory holding the blobs
+     */
+    public FileSystemClaimCheckStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new ClaimCheckException("Unable to create claim check directory " + directory, e);
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] content) {
+        Path target = directory.resolve(key);
+        try {
+            if (Files.exists(target)) {
+                try {
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                    return;
+                } catch (NoSuchFileException e) {
+                    // Purged in the meantime, stored again below
+                }
+            }
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temp, content);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Stored concurrently by another writer, the content is the same
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new ClaimCheckException("Unable to store claim check " + key, e);
+        }
+    }
+
+    /**
+     * Deletes the blobs not stored for longer than the given time.
+     *
+     * @param ttl how long a blob is kept after it was last stored
+     * @return the number of blobs deleted
+     */
+    public int purgeOlderThan(Duration ttl) {
+        FileTime expiry = FileTime.from(Instant.now().minus(ttl));
+        int purged = 0;
+        try (DirectoryStream<Path> blobs = Files.newDirectoryStream(directory)) {
+            for (Path blob : blobs) {
+                try {
+                    if (Files.getLastModifiedTime(blob).compareTo(expiry) < 0 && Files.deleteIfExists(blob)) {
+                        purged++;
+                    }
+                } catch (NoSuchFileException e) {
+                    // Purged concurrently by another service sharing the directory
+                }
+            }
+        } catch (IOException e) {
+            throw new ClaimCheckException("Unable to purge claim check directory " + directory, e);
+        }
+        return purged;
+    }
+
+    @Override
+    public byte[] get(String key) {
+        try {
+            return Files.readAllBytes(directory.resolve(key));
+        } catch (NoSuchFileException e) {
+            throw new ClaimCheckException("No content stored for claim check " + key, e);
+        } catch (IOException e) {
+            throw new ClaimCheckException("Unable to read claim check " + key, e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.melloware.petstore.common.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit which adapts itself to the observed latency using additive
+ * increase, multiplicative decrease (AIMD).
+ * <p>
+ * Every call must {@link #tryAcquire()} a permit and release it with exactly
+ * one of {@link #onSuccess(long)}, {@link #onDropped()} or {@link #onIgnore()}.
+ * <ul>
+ * <li>A call slower than the latency threshold, or a dropped call, multiplies
+ * the limit by the backoff ratio.</li>
+ * <li>A fast call while at least half of the limit is in use grows the limit by
+ * {@code 1 / limit}, so roughly one permit per full window of calls.</li>
+ * </ul>
+ * The limit always stays between the configured minimum and maximum. It can
+ * also be shrunk with {@link #backoff()} on an overload seen elsewhere, such as
+ * CPU or memory pressure.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    /**
+     * Creates a new limit.
+     *
+     * @param initialLimit     the starting limit
+     * @param minLimit         the lowest the limit can drop to
+     * @param maxLimit         the highest the limit can grow to
+     * @param backoffRatio     the factor applied to the limit on overload, between
+     *                         0 and 1
+     * @param latencyThreshold calls slower than this are treated as overload
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+            Duration latencyThreshold) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Acquires a permit if the number of calls in flight is below the limit.
+     *
+     * @return {@code true} if the permit was acquired
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit of a call which completed.
+     *
+     * @param latencyNanos the latency of the call in nanoseconds
+     */
+    public void onSuccess(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (current * 2 >= getLimit()) {
+            increase();
+        }
+    }
+
+    /**
+     * Releases a permit of a call which failed because the downstream system is
+     * overloaded.
+     */
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        decrease();
+    }
+
+    /**
+     * Releases a permit of a call whose outcome says nothing about the load of
+     * the downstream system.
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Shrinks the limit by the backoff ratio without releasing a permit, when an
+     * overload is observed outside of the calls themselves.
+     */
+    public void backoff() {
+        decrease();
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the limit
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Returns the number of calls currently holding a permit.
+     *
+     * @return the number of calls in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+    }
+
+    private synchronized void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
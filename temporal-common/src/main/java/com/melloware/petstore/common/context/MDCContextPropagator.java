@@ -1,18 +1,25 @@
 package com.melloware.petstore.common.context;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import jakarta.inject.Singleton;
 
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.MDC;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.protobuf.ByteString;
 
 import io.quarkus.arc.Unremovable;
 import io.temporal.api.common.v1.Payload;
 import io.temporal.common.context.ContextPropagator;
+import io.temporal.common.converter.EncodingKeys;
 import io.temporal.common.converter.GlobalDataConverter;
 
 import lombok.extern.slf4j.Slf4j;
@@ -22,12 +29,43 @@ import lombok.extern.slf4j.Slf4j;
  * (Mapped Diagnostic Context) across Temporal workflow and activity boundaries.
  * This class ensures that MDC entries with keys starting with "X-" are
  * propagated.
+ * <p>
+ * All entries travel as a single JSON payload under the
+ * {@value #HEADER_KEY} header. The payload is encoded once per context and
+ * kept with it, and a context received from a header is kept as the current
+ * context of the thread, so forwarding an unchanged MDC to the next activity
+ * re-uses the received payload without encoding it again.
+ * <p>
+ * Headers written by the previous version, with one payload per "X-" entry,
+ * are still read so running workflows can be replayed.
  */
 @Slf4j
 @Singleton
 @Unremovable
 public class MDCContextPropagator implements ContextPropagator {
 
+    /**
+     * Prefix of the MDC keys which are propagated
+     */
+    public static final String MDC_KEY_PREFIX = "X-";
+
+    /**
+     * Header holding the encoded MDC entries
+     */
+    public static final String HEADER_KEY = "petstore-mdc";
+
+    private static final ByteString ENCODING = ByteString.copyFrom("json/plain", StandardCharsets.UTF_8);
+
+    private static final TypeReference<Map<String, String>> ENTRIES_TYPE = new TypeReference<>() {
+    };
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectWriter WRITER = MAPPER.writerFor(ENTRIES_TYPE);
+    private static final ObjectReader READER = MAPPER.readerFor(ENTRIES_TYPE);
+
+    // Last context seen on each thread, re-used while the MDC does not change
+    private static final ThreadLocal<MDCContext> CURRENT = new ThreadLocal<>();
+
     public MDCContextPropagator() {
         super();
     }
@@ -46,86 +84,134 @@ public class MDCContextPropagator implements ContextPropagator {
     /**
      * Retrieves the current MDC context to be propagated.
      *
-     * @return a map containing the current MDC context, filtered to include
-     *         only entries with keys starting with "X-".
+     * @return the current MDC context, filtered to include only entries with
+     *         keys starting with "X-".
      */
     @Override
     public Object getCurrentContext() {
-        Map<String, String> context = new HashMap<>();
+        Map<String, String> entries = new HashMap<>();
         Map<String, String> mdcContext = MDC.getCopyOfContextMap();
         if (mdcContext != null) {
-            mdcContext.entrySet().stream()
-                    .filter(entry -> entry.getKey().startsWith("X-"))
-                    .forEach(entry -> context.put(entry.getKey(), entry.getValue()));
+            for (Map.Entry<String, String> entry : mdcContext.entrySet()) {
+                if (entry.getKey().startsWith(MDC_KEY_PREFIX) && entry.getValue() != null) {
+                    entries.put(entry.getKey(), entry.getValue());
+                }
+            }
         }
-        return context;
+
+        MDCContext current = CURRENT.get();
+        if (current != null && current.entries.equals(entries)) {
+            return current;
+        }
+        current = new MDCContext(Collections.unmodifiableMap(entries), null);
+        CURRENT.set(current);
+        return current;
     }
 
     /**
-     * Sets the current MDC context from the given context map.
+     * Sets the current MDC context from the given context.
      *
-     * @param context the context map containing MDC entries to be set.
+     * @param context the context containing MDC entries to be set.
      */
     @Override
     public void setCurrentContext(Object context) {
-        if (context instanceof Map) {
-            @SuppressWarnings("unchecked")
-            Map<String, String> contextMap = (Map<String, String>) context;
-            contextMap.forEach(MDC::put);
+        if (context instanceof MDCContext mdcContext) {
+            mdcContext.entries.forEach(MDC::put);
+            CURRENT.set(mdcContext);
         }
     }
 
     /**
-     * Serializes the given context map to a map of Payloads.
+     * Serializes the given context to its single header payload.
      *
-     * @param context the context map containing MDC entries to be serialized.
+     * @param context the context containing MDC entries to be serialized.
      * @return a map of Payloads representing the serialized context.
      */
     @Override
     public Map<String, Payload> serializeContext(Object context) {
-        if (!(context instanceof Map)) {
-            return new HashMap<>();
+        if (!(context instanceof MDCContext mdcContext) || mdcContext.entries.isEmpty()) {
+            return Map.of();
         }
-        @SuppressWarnings("unchecked")
-        Map<String, String> contextMap = (Map<String, String>) context;
-        Map<String, Payload> serializedContext = new HashMap<>();
-        contextMap.forEach((key, value) -> GlobalDataConverter.get().toPayload(value)
-                .ifPresent(payload -> serializedContext.put(key, payload)));
-        return serializedContext;
+        Payload payload = mdcContext.payload();
+        return payload == null ? Map.of() : Map.of(HEADER_KEY, payload);
     }
 
     /**
-     * Deserializes the given map of Payloads to a context map.
+     * Deserializes the given header to a context.
      *
      * @param context the map of Payloads to be deserialized.
-     * @return a context map containing the deserialized MDC entries.
+     * @return a context containing the deserialized MDC entries.
      */
     @Override
     public Object deserializeContext(Map<String, Payload> context) {
-        Map<String, String> contextMap = new HashMap<>();
-        context.forEach((key, payload) -> {
+        Payload payload = context.get(HEADER_KEY);
+        if (payload != null) {
+            try {
+                return new MDCContext(Collections.unmodifiableMap(READER.readValue(payload.getData().toByteArray())),
+                        payload);
+            } catch (IOException e) {
+                log.warn("Couldn't parse MDC Context header {}", HEADER_KEY);
+                return new MDCContext(Map.of(), null);
+            }
+        }
+        return deserializeLegacyContext(context);
+    }
 
+    /**
+     * Reads the header of the previous version, one JSON string payload per MDC
+     * entry.
+     */
+    private static MDCContext deserializeLegacyContext(Map<String, Payload> context) {
+        Map<String, String> entries = new HashMap<>();
+        context.forEach((key, payload) -> {
+            if (!key.startsWith(MDC_KEY_PREFIX)) {
+                return;
+            }
             try {
-                Object payloadValue = StringUtils.EMPTY; // default value
+                Object value = payload.getData().isEmpty() ? ""
+                        : GlobalDataConverter.get().fromPayload(payload, Object.class, Object.class);
+                entries.put(key, value instanceof Map<?, ?> map && map.isEmpty() ? "" : String.valueOf(value));
+            } catch (Exception e) {
+                log.warn("Couldn't parse MDC Context Data Key {}", key);
+            }
+        });
+        return new MDCContext(Collections.unmodifiableMap(entries), null);
+    }
 
-                // Convert data to string to compare
-                ByteString data = payload.getData();
+    /**
+     * Propagated MDC entries along with their encoded payload, created on first
+     * use.
+     */
+    static final class MDCContext {
 
-                // Check the value to see if it "empty"
-                if (!data.isEmpty()) {
+        private final Map<String, String> entries;
+        private volatile Payload payload;
 
-                    // Check if the value isn't {}'s
-                    if (!StringUtils.equals("{}", data.toStringUtf8())) {
-                        payloadValue = GlobalDataConverter.get().fromPayload(payload, Object.class, Object.class);
-                    }
-                }
+        MDCContext(Map<String, String> entries, Payload payload) {
+            this.entries = entries;
+            this.payload = payload;
+        }
 
-                // Add the value into the map
-                contextMap.put(key, payloadValue.toString());
-            } catch (Exception e) {
-                log.warn("Couldn't parse MDC Context Data Key {}", key);
+        Payload payload() {
+            Payload encoded = payload;
+            if (encoded == null) {
+                try {
+                    encoded = Payload.newBuilder()
+                            .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ENCODING)
+                            .setData(ByteString.copyFrom(WRITER.writeValueAsBytes(entries)))
+                            .build();
+                } catch (IOException e) {
+                    log.warn("Couldn't serialize MDC Context {}", entries.keySet());
+                    return null;
+                }
+                payload = encoded;
             }
-        });
-        return contextMap;
+            return encoded;
+        }
+
+        @Override
+        public String toString() {
+            return entries.toString();
+        }
     }
 }
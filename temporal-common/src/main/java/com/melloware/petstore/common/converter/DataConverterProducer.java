@@ -0,0 +1,164 @@
+package com.melloware.petstore.common.converter;
+
+import java.util.List;
+
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import jakarta.interceptor.Interceptor;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.melloware.petstore.common.claimcheck.ClaimCheck;
+import com.melloware.petstore.common.claimcheck.ClaimCheckModule;
+import com.melloware.petstore.common.claimcheck.ClaimCheckStore;
+
+import io.quarkus.arc.Unremovable;
+import io.quarkus.runtime.StartupEvent;
+import io.temporal.common.converter.ByteArrayPayloadConverter;
+import io.temporal.common.converter.CodecDataConverter;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.common.converter.GlobalDataConverter;
+import io.temporal.common.converter.JacksonJsonPayloadConverter;
+import io.temporal.common.converter.NullPayloadConverter;
+import io.temporal.common.converter.ProtobufJsonPayloadConverter;
+
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Produces the {@link DataConverter} shared by the workflow clients and workers
+ * of every petstore service.
+ * <p>
+ * The converter chain is the Temporal default with a
+ * {@link SmilePayloadConverter} placed before JSON. Smile encoding is opt-in with
+ * {@code petstore.temporal.payload.encoding=smile} and must only be switched on
+ * once every service runs a version able to decode it.
+ * <p>
+ * Payloads are then passed through a {@link DeflatePayloadCodec}, which
+ * compresses payloads above {@code petstore.temporal.payload.compression.threshold}
+ * bytes when {@code petstore.temporal.payload.compression.enabled=true}. The
+ * product lists copied into most activity inputs compress very well. Payloads
+ * inflating beyond {@code petstore.temporal.payload.compression.max-decoded-size}
+ * bytes are rejected.
+ * <p>
+ * Product lists with more than {@code petstore.temporal.claim-check.threshold}
+ * line items are replaced by a {@link ClaimCheck} reference when
+ * {@code petstore.temporal.claim-check.enabled=true}. The lists are stored in
+ * the {@link ClaimCheckStore} bean, which must be shared by every service.
+ * <p>
+ * Decoding of Smile, compressed and claim-checked payloads is always available,
+ * so histories written with any combination of settings can be replayed.
+ * <p>
+ * The converter is also registered as the {@link GlobalDataConverter} for code
+ * which is not handed a converter, such as context propagators.
+ */
+@ApplicationScoped
+@JBossLog
+public class DataConverterProducer {
+
+    /**
+     * Plain JSON payloads, the Temporal default
+     */
+    public static final String ENCODING_JSON = "json";
+
+    /**
+     * Smile payloads for the petstore models
+     */
+    public static final String ENCODING_SMILE = "smile";
+
+    @ConfigProperty(name = "petstore.temporal.payload.encoding", defaultValue = ENCODING_JSON)
+    String encoding;
+
+    @ConfigProperty(name = "petstore.temporal.payload.compression.enabled", defaultValue = "false")
+    boolean compressionEnabled;
+
+    @ConfigProperty(name = "petstore.temporal.payload.compression.threshold", defaultValue = "4096")
+    int compressionThreshold;
+
+    @ConfigProperty(name = "petstore.temporal.payload.compression.max-decoded-size", defaultValue = "16777216")
+    int compressionMaxDecodedSize;
+
+    @ConfigProperty(name = "petstore.temporal.claim-check.enabled", defaultValue = "false")
+    boolean claimCheckEnabled;
+
+    @ConfigProperty(name = "petstore.temporal.claim-check.threshold", defaultValue = "100")
+    int claimCheckThreshold;
+
+    @ConfigProperty(name = "petstore.temporal.claim-check.cache-size", defaultValue = "1000")
+    int claimCheckCacheSize;
+
+    @Produces
+    @Singleton
+    @Unremovable
+    DataConverter dataConverter(ClaimCheckStore claimCheckStore) {
+        boolean smileEnabled = ENCODING_SMILE.equalsIgnoreCase(encoding);
+        log.infof("Temporal payload encoding: %s, compression: %s", smileEnabled ? ENCODING_SMILE : ENCODING_JSON,
+                compressionEnabled ? "above " + compressionThreshold + " bytes" : "off");
+        log.infof("Temporal claim check: %s", claimCheckEnabled
+                ? "above " + claimCheckThreshold + " products"
+                : "off");
+        ClaimCheck.configure(claimCheckStore, claimCheckEnabled, claimCheckThreshold, claimCheckCacheSize);
+        return newDataConverter(smileEnabled, compressionEnabled, compressionThreshold, compressionMaxDecodedSize);
+    }
+
+    /**
+     * Creates the petstore converter chain.
+     *
+     * @param smileEnabled         {@code true} to encode the petstore models with
+     *                             Smile
+     * @param compressionEnabled   {@code true} to compress large payloads
+     * @param compressionThreshold serialized size in bytes from which payloads are
+     *                             compressed
+     * @return a new {@link DataConverter}
+     */
+    public static DataConverter newDataConverter(boolean smileEnabled, boolean compressionEnabled,
+            int compressionThreshold) {
+        return newDataConverter(smileEnabled, compressionEnabled, compressionThreshold,
+                DeflatePayloadCodec.DEFAULT_MAX_DECODED_SIZE);
+    }
+
+    /**
+     * Creates the petstore converter chain.
+     *
+     * @param smileEnabled         {@code true} to encode the petstore models with
+     *                             Smile
+     * @param compressionEnabled   {@code true} to compress large payloads
+     * @param compressionThreshold serialized size in bytes from which payloads are
+     *                             compressed
+     * @param maxDecodedSize       largest size in bytes a compressed payload may
+     *                             inflate to
+     * @return a new {@link DataConverter}
+     */
+    public static DataConverter newDataConverter(boolean smileEnabled, boolean compressionEnabled,
+            int compressionThreshold, int maxDecodedSize) {
+        DataConverter converter = new DefaultDataConverter(
+                new NullPayloadConverter(),
+                new ByteArrayPayloadConverter(),
+                new ProtobufJsonPayloadConverter(),
+                new SmilePayloadConverter(smileEnabled),
+                new JacksonJsonPayloadConverter(newJsonObjectMapper()));
+        return new CodecDataConverter(converter,
+                List.of(new DeflatePayloadCodec(compressionEnabled, compressionThreshold, maxDecodedSize)));
+    }
+
+    /**
+     * Creates the JSON mapper, the Temporal default with the
+     * {@link ClaimCheckModule}.
+     *
+     * @return a new mapper
+     */
+    public static ObjectMapper newJsonObjectMapper() {
+        ObjectMapper mapper = JacksonJsonPayloadConverter.newDefaultObjectMapper();
+        mapper.registerModule(new ClaimCheckModule());
+        return mapper;
+    }
+
+    void registerGlobal(@Observes @Priority(Interceptor.Priority.PLATFORM_BEFORE) StartupEvent event,
+            DataConverter dataConverter) {
+        GlobalDataConverter.register(dataConverter);
+    }
+}
@@ -0,0 +1,155 @@
+package com.melloware.petstore.common.converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.payload.codec.PayloadCodec;
+import io.temporal.payload.codec.PayloadCodecException;
+
+/**
+ * {@link PayloadCodec} which compresses large payloads with Deflate.
+ * <p>
+ * Payloads whose serialized size reaches the threshold are compressed at
+ * {@link Deflater#BEST_SPEED} and wrapped in a payload marked
+ * {@value #ENCODING_TYPE}. Smaller payloads, and payloads which do not shrink,
+ * are passed through unchanged. Decoding only touches payloads carrying the
+ * {@value #ENCODING_TYPE} encoding, so histories mixing compressed and plain
+ * payloads decode, and decoding works even while compression is switched off.
+ * <p>
+ * Every call uses its own Deflater or Inflater and ends it, so their native
+ * memory is freed at once instead of lingering on the many threads of a
+ * worker. A payload inflating beyond the maximum decoded size is rejected, so a
+ * corrupt or hostile payload cannot exhaust the heap.
+ */
+public class DeflatePayloadCodec implements PayloadCodec {
+
+    /**
+     * Encoding written in the metadata of compressed payloads
+     */
+    public static final String ENCODING_TYPE = "binary/deflate";
+
+    /**
+     * Default largest size in bytes a payload may inflate to, 16 MiB
+     */
+    public static final int DEFAULT_MAX_DECODED_SIZE = 16 * 1024 * 1024;
+
+    private static final ByteString ENCODING = ByteString.copyFrom(ENCODING_TYPE, StandardCharsets.UTF_8);
+
+    private final boolean compressionEnabled;
+    private final int threshold;
+    private final int maxDecodedSize;
+
+    /**
+     * Creates a new codec inflating payloads up to
+     * {@value #DEFAULT_MAX_DECODED_SIZE} bytes.
+     *
+     * @param compressionEnabled {@code false} to only decompress payloads
+     * @param threshold          serialized size in bytes from which payloads are
+     *                           compressed
+     */
+    public DeflatePayloadCodec(boolean compressionEnabled, int threshold) {
+        this(compressionEnabled, threshold, DEFAULT_MAX_DECODED_SIZE);
+    }
+
+    /**
+     * Creates a new codec.
+     *
+     * @param compressionEnabled {@code false} to only decompress payloads
+     * @param threshold          serialized size in bytes from which payloads are
+     *                           compressed
+     * @param maxDecodedSize     largest size in bytes a payload may inflate to
+     */
+    public DeflatePayloadCodec(boolean compressionEnabled, int threshold, int maxDecodedSize) {
+        this.compressionEnabled = compressionEnabled;
+        this.threshold = threshold;
+        this.maxDecodedSize = maxDecodedSize;
+    }
+
+    @Override
+    public List<Payload> encode(List<Payload> payloads) {
+        if (!compressionEnabled) {
+            return payloads;
+        }
+        return payloads.stream().map(this::encode).toList();
+    }
+
+    @Override
+    public List<Payload> decode(List<Payload> payloads) {
+        return payloads.stream().map(this::decode).toList();
+    }
+
+    private Payload encode(Payload payload) {
+        if (payload.getSerializedSize() < threshold) {
+            return payload;
+        }
+        byte[] compressed = deflate(payload.toByteArray());
+        if (compressed.length >= payload.getSerializedSize()) {
+            return payload;
+        }
+        return Payload.newBuilder()
+                .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ENCODING)
+                .setData(ByteString.copyFrom(compressed))
+                .build();
+    }
+
+    private Payload decode(Payload payload) {
+        if (!ENCODING.equals(payload.getMetadataOrDefault(EncodingKeys.METADATA_ENCODING_KEY, null))) {
+            return payload;
+        }
+        try {
+            return Payload.parseFrom(inflate(payload.getData()));
+        } catch (InvalidProtocolBufferException | DataFormatException e) {
+            throw new PayloadCodecException(e);
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[Math.max(64, Math.min(input.length, 8192))];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(ByteString input) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input.toByteArray());
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.min(input.size() * 4, maxDecodedSize));
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated " + ENCODING_TYPE + " payload");
+                }
+                if (output.size() + count > maxDecodedSize) {
+                    throw new DataFormatException(
+                            ENCODING_TYPE + " payload inflates beyond " + maxDecodedSize + " bytes");
+                }
+                output.write(buffer, 0, count);
+            }
+            return output.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.melloware.petstore.common.converter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.protobuf.ByteString;
+import com.melloware.petstore.common.claimcheck.ClaimCheckModule;
+
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverterException;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.common.converter.PayloadConverter;
+
+/**
+ * {@link PayloadConverter} which encodes the petstore models with Smile, the
+ * binary form of JSON supported by Jackson.
+ * <p>
+ * Smile keeps the Jackson mapping of the models, so no model needs to change,
+ * but writes numbers in binary and back-references repeated property names and
+ * short strings. The product lists carried by most activity inputs repeat the
+ * same property names for every line item and shrink the most.
+ * <p>
+ * Only classes under {@value #MODEL_PACKAGE_PREFIX} are encoded. Any other value
+ * is left to the next converter of the chain, ending with plain JSON. Payloads
+ * marked {@value #ENCODING_TYPE} are always decoded, even when encoding is
+ * switched off, so histories written while it was on can still be replayed.
+ */
+public class SmilePayloadConverter implements PayloadConverter {
+
+    /**
+     * Encoding written in the payload metadata
+     */
+    public static final String ENCODING_TYPE = "binary/smile";
+
+    /**
+     * Package prefix of the classes encoded with Smile
+     */
+    public static final String MODEL_PACKAGE_PREFIX = "com.melloware.petstore.";
+
+    private static final ByteString ENCODING = ByteString.copyFrom(ENCODING_TYPE, StandardCharsets.UTF_8);
+
+    private final ObjectMapper mapper;
+    private final boolean encodingEnabled;
+
+    /**
+     * Creates a converter which encodes and decodes Smile payloads.
+     */
+    public SmilePayloadConverter() {
+        this(true);
+    }
+
+    /**
+     * Creates a new converter.
+     *
+     * @param encodingEnabled {@code false} to only decode Smile payloads
+     */
+    public SmilePayloadConverter(boolean encodingEnabled) {
+        this.encodingEnabled = encodingEnabled;
+        this.mapper = newSmileObjectMapper();
+    }
+
+    /**
+     * Creates the Smile mapper, configured like the default JSON mapper of
+     * Temporal so both encodings produce the same objects, including the
+     * {@link ClaimCheckModule}.
+     *
+     * @return a new mapper
+     */
+    public static ObjectMapper newSmileObjectMapper() {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        ObjectMapper mapper = new ObjectMapper(factory);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new Jdk8Module());
+        mapper.registerModule(new ClaimCheckModule());
+        return mapper;
+    }
+
+    @Override
+    public String getEncodingType() {
+        return ENCODING_TYPE;
+    }
+
+    @Override
+    public Optional<Payload> toData(Object value) throws DataConverterException {
+        if (!encodingEnabled || value == null || !value.getClass().getName().startsWith(MODEL_PACKAGE_PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Payload.newBuilder()
+                    .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ENCODING)
+                    .setData(ByteString.copyFrom(mapper.writeValueAsBytes(value)))
+                    .build());
+        } catch (IOException e) {
+            throw new DataConverterException(e);
+        }
+    }
+
+    @Override
+    public <T> T fromData(Payload content, Class<T> valueClass, Type valueType) throws DataConverterException {
+        ByteString data = content.getData();
+        if (data.isEmpty()) {
+            return null;
+        }
+        try {
+            return mapper.readValue(data.newInput(), mapper.getTypeFactory().constructType(valueType));
+        } catch (IOException e) {
+            throw new DataConverterException(e);
+        }
+    }
+}
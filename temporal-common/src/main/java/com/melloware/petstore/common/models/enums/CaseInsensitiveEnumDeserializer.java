@@ -5,34 +5,49 @@ import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * A generic JSON deserializer for enums that performs case-insensitive matching.
  * <p>
- * This deserializer ensures that enum values are deserialized correctly regardless of the case used in the JSON input. 
- * It converts the input string to uppercase before attempting to match it with enum constants, which allows for 
- * flexibility in the case of the input values.
+ * This deserializer ensures that enum values are deserialized correctly regardless of the case used in the JSON input.
+ * Apart from case the value must match a constant name exactly. The constant names are indexed by length once per enum
+ * class, and the input characters are compared in place against the candidates of the same length, so no string is
+ * created unless the value is invalid.
  * </p>
  *
  * @param <E> The type of the enum to be deserialized.
  */
 public class CaseInsensitiveEnumDeserializer<E extends Enum<E>> extends JsonDeserializer<E> {
+
+    private static final ClassValue<Lookup<?>> LOOKUPS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        protected Lookup<?> computeValue(Class<?> type) {
+            return new Lookup(type);
+        }
+    };
+
     private final Class<E> enumClass;
+    private final Lookup<E> lookup;
 
     /**
      * Constructs a {@code CaseInsensitiveEnumDeserializer} for the specified enum class.
      *
      * @param enumClass The class of the enum type to be deserialized.
      */
+    @SuppressWarnings("unchecked")
     protected CaseInsensitiveEnumDeserializer(Class<E> enumClass) {
         this.enumClass = enumClass;
+        this.lookup = (Lookup<E>) LOOKUPS.get(enumClass);
     }
 
     /**
      * Deserializes a JSON token into an enum value.
      * <p>
-     * This method reads the JSON token as a string, converts it to uppercase, and attempts to map it to an enum constant 
-     * of the specified type. If the value does not match any enum constants, an exception is thrown.
+     * This method reads the characters of the JSON token and matches them, ignoring case, against the enum constants
+     * of the specified type. If the value does not match any enum constants, an exception
+     * is thrown.
      * </p>
      *
      * @param jp The JSON parser used to read the JSON content.
@@ -43,11 +58,62 @@ public class CaseInsensitiveEnumDeserializer<E extends Enum<E>> extends JsonDese
      */
     @Override
     public E deserialize(JsonParser jp, DeserializationContext dc) throws IOException {
-        String value = jp.getText().toUpperCase(); // Convert the input value to uppercase
-        try {
-            return Enum.valueOf(enumClass, value); // Attempt to map the value to an enum constant
-        } catch (IllegalArgumentException e) {
-            throw new JsonMappingException(jp, "Invalid value for enum " + enumClass.getSimpleName() + ": " + value);
+        E constant = lookup.find(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextLength());
+        if (constant == null) {
+            throw new JsonMappingException(jp,
+                    "Invalid value for enum " + enumClass.getSimpleName() + ": " + jp.getText().toUpperCase());
+        }
+        return constant;
+    }
+
+    /**
+     * Enum constants grouped by the length of their name.
+     */
+    private static final class Lookup<E extends Enum<E>> {
+
+        private final E[][] constantsByLength;
+        private final char[][][] namesByLength;
+
+        @SuppressWarnings("unchecked")
+        Lookup(Class<E> enumClass) {
+            E[] constants = enumClass.getEnumConstants();
+            int maxLength = Arrays.stream(constants).mapToInt(c -> c.name().length()).max().orElse(0);
+            constantsByLength = (E[][]) new Enum<?>[maxLength + 1][];
+            namesByLength = new char[maxLength + 1][][];
+            for (int length = 0; length <= maxLength; length++) {
+                int nameLength = length;
+                E[] sameLength = Arrays.stream(constants)
+                        .filter(c -> c.name().length() == nameLength)
+                        .toArray(size -> (E[]) new Enum<?>[size]);
+                constantsByLength[length] = sameLength;
+                namesByLength[length] = Arrays.stream(sameLength)
+                        .map(c -> c.name().toUpperCase().toCharArray())
+                        .toArray(char[][]::new);
+            }
+        }
+
+        E find(char[] text, int offset, int length) {
+            if (length >= namesByLength.length) {
+                return null;
+            }
+
+            char[][] names = namesByLength[length];
+            for (int i = 0; i < names.length; i++) {
+                if (matches(names[i], text, offset)) {
+                    return constantsByLength[length][i];
+                }
+            }
+            return null;
+        }
+
+        private static boolean matches(char[] name, char[] text, int offset) {
+            for (int i = 0; i < name.length; i++) {
+                char c = text[offset + i];
+                if (c != name[i] && Character.toUpperCase(c) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
-}
\ No newline at end of file
+}
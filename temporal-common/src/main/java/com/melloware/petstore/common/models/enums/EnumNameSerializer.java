@@ -0,0 +1,39 @@
+package com.melloware.petstore.common.models.enums;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import java.io.IOException;
+
+/**
+ * A generic JSON serializer writing the name of enum constants.
+ * <p>
+ * The output is the same as the default Jackson enum serialization, but the names are held as
+ * {@link SerializedString}, which caches their encoded form, so each constant is only quoted and encoded once.
+ * </p>
+ *
+ * @param <E> The type of the enum to be serialized.
+ */
+public class EnumNameSerializer<E extends Enum<E>> extends JsonSerializer<E> {
+
+    private final SerializedString[] names;
+
+    /**
+     * Constructs a {@code EnumNameSerializer} for the specified enum class.
+     *
+     * @param enumClass The class of the enum type to be serialized.
+     */
+    protected EnumNameSerializer(Class<E> enumClass) {
+        E[] constants = enumClass.getEnumConstants();
+        this.names = new SerializedString[constants.length];
+        for (E constant : constants) {
+            names[constant.ordinal()] = new SerializedString(constant.name());
+        }
+    }
+
+    @Override
+    public void serialize(E value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeString(names[value.ordinal()]);
+    }
+}
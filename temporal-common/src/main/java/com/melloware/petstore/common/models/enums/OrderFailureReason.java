@@ -1,11 +1,13 @@
 package com.melloware.petstore.common.models.enums;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 /**
  * Enumeration of possible failure reasons for product orders.
  */
 @JsonDeserialize(using = OrderFailureReason.Deserializer.class)
+@JsonSerialize(using = OrderFailureReason.Serializer.class)
 public enum OrderFailureReason {
     NONE("None"),
     INSUFFICIENT_FUNDS("Insufficient funds on one or more payment methods"),
@@ -57,4 +59,13 @@ public enum OrderFailureReason {
             super(OrderFailureReason.class);
         }
     }
+
+    /**
+     * Serializer for {@code OrderFailureReason} writing the constant name.
+     */
+    static class Serializer extends EnumNameSerializer<OrderFailureReason> {
+        public Serializer() {
+            super(OrderFailureReason.class);
+        }
+    }
 }
\ No newline at end of file
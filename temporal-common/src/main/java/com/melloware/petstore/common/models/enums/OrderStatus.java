@@ -1,6 +1,7 @@
 package com.melloware.petstore.common.models.enums;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 /**
  * Enum representing the different statuses of an order.
@@ -12,6 +13,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
  
  */
 @JsonDeserialize(using = OrderStatus.Deserializer.class)
+@JsonSerialize(using = OrderStatus.Serializer.class)
 public enum OrderStatus {
     
     /**
@@ -76,4 +78,13 @@ public enum OrderStatus {
             super(OrderStatus.class);
         }
     }
+
+    /**
+     * Serializer for {@code OrderStatus} writing the constant name.
+     */
+    static class Serializer extends EnumNameSerializer<OrderStatus> {
+        public Serializer() {
+            super(OrderStatus.class);
+        }
+    }
 }
\ No newline at end of file
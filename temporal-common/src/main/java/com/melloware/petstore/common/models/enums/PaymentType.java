@@ -1,6 +1,7 @@
 package com.melloware.petstore.common.models.enums;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 /**
  * Enum representing different types of credit cards
@@ -13,6 +14,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
  * 
  */
 @JsonDeserialize(using = PaymentType.Deserializer.class)
+@JsonSerialize(using = PaymentType.Serializer.class)
 public enum PaymentType {
 
     /**
@@ -75,4 +77,13 @@ public enum PaymentType {
             super(PaymentType.class);
         }
     }
+
+    /**
+     * Serializer for {@code PaymentType} writing the constant name.
+     */
+    static class Serializer extends EnumNameSerializer<PaymentType> {
+        public Serializer() {
+            super(PaymentType.class);
+        }
+    }
 }
\ No newline at end of file
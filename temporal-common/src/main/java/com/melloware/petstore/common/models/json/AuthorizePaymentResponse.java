@@ -0,0 +1,32 @@
+package com.melloware.petstore.common.models.json;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.util.UUID;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Response from authorizing a charge on a customers credit card. Nothing is
+ * charged until the authorization is captured.
+ */
+@Builder
+@Getter
+@ToString
+@Jacksonized
+public class AuthorizePaymentResponse {
+
+    /**
+     * Authorization code, used to capture or void the authorization
+     */
+    @NotNull
+    private final UUID authorizationCode;
+
+    /**
+     * Amount held on the card
+     */
+    @PositiveOrZero
+    private final double authorizedAmount;
+}
@@ -0,0 +1,28 @@
+package com.melloware.petstore.common.models.json;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Request object to cancel the shipment of a failed order
+ */
+@Builder
+@Getter
+@ToString
+@Jacksonized
+public class CancelShipmentRequest {
+
+    @NotNull
+    private final UUID transactionId;
+
+    /**
+     * Tracking number returned when the shipment was created
+     */
+    @NotBlank
+    private final String trackingNumber;
+}
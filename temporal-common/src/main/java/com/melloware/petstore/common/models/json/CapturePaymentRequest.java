@@ -0,0 +1,38 @@
+package com.melloware.petstore.common.models.json;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Request object to charge a previously authorized amount
+ */
+@SuperBuilder
+@Getter
+@ToString
+@Jacksonized
+public class CapturePaymentRequest extends RequiredFieldsBaseBuilder {
+
+    /**
+     * Transaction ID which should be the correlation id used across
+     * the whole system for auditing purposes
+     */
+    @NotNull
+    private final UUID transactionId;
+
+    /**
+     * Authorization code returned by the authorization
+     */
+    @NotNull
+    private final UUID authorizationCode;
+
+    /**
+     * The amount to charge, at most the authorized amount
+     */
+    @PositiveOrZero
+    private final double amount;
+}
@@ -1,8 +1,10 @@
 package com.melloware.petstore.common.models.json;
 
 import java.util.List;
+import java.util.UUID;
 
-import jakarta.validation.constraints.NotEmpty;
+import com.melloware.petstore.common.models.validation.OrderProductsRequest;
+import com.melloware.petstore.common.models.validation.ProductsOrTransactionId;
 
 import lombok.Builder;
 import lombok.Getter;
@@ -11,17 +13,29 @@ import lombok.extern.jackson.Jacksonized;
 
 /**
  * Checks inventory for given product list
- * 
+ * <p>
+ * A slim request only carries the transaction id, and the products are
+ * resolved from the order stored when it was created.
  */
 @Builder
 @Getter
 @ToString
 @Jacksonized
-public class CheckInventoryRequest {
+@ProductsOrTransactionId
+public class CheckInventoryRequest implements OrderProductsRequest {
 
     /**
-     * List of {@link Product} to check
+     * Transaction id of the order
+     */
+    private final UUID transactionId;
+
+    /**
+     * List of {@link Product} to check, empty in a slim request
      */
-    @NotEmpty
     private final List<Product> products;
-}
\ No newline at end of file
+
+    @Override
+    public UUID orderTransactionId() {
+        return transactionId;
+    }
+}
@@ -1,8 +1,11 @@
 package com.melloware.petstore.common.models.json;
 
 import java.util.List;
+import java.util.UUID;
+
+import com.melloware.petstore.common.models.validation.OrderProductsRequest;
+import com.melloware.petstore.common.models.validation.ProductsOrTransactionId;
 
-import jakarta.validation.constraints.NotEmpty;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.ToString;
@@ -11,7 +14,8 @@ import lombok.extern.jackson.Jacksonized;
 /**
  * Request to create a tracking number
  * 
- * In this example I pass in the list of products ordered
+ * In this example I pass in the list of products ordered, or only the
+ * transaction id in a slim request
  * 
  
  */
@@ -19,12 +23,21 @@ import lombok.extern.jackson.Jacksonized;
 @Getter
 @ToString
 @Jacksonized
-public class CreateTrackingNumberRequest {
+@ProductsOrTransactionId
+public class CreateTrackingNumberRequest implements OrderProductsRequest {
    
     /**
-     * List of {@link Product} ordered
+     * Transaction id of the order
+     */
+    private final UUID transactionId;
+
+    /**
+     * List of {@link Product} ordered, empty in a slim request
      */
-    @NotEmpty
     private final List<Product> products;
-    
-}
\ No newline at end of file
+
+    @Override
+    public UUID orderTransactionId() {
+        return transactionId;
+    }
+}
@@ -2,12 +2,15 @@ package com.melloware.petstore.common.models.json;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.PositiveOrZero;
 import java.time.ZonedDateTime;
 import java.util.UUID;
+
+import com.melloware.petstore.common.models.validation.OrderProductsRequest;
+import com.melloware.petstore.common.models.validation.ProductsOrTransactionId;
+
 import lombok.Builder;
 import lombok.Getter;
 import lombok.ToString;
@@ -15,14 +18,17 @@ import lombok.extern.jackson.Jacksonized;
 import java.util.List;
 
 /**
- *
- 
+ * Request to mark an order as complete
+ * <p>
+ * A slim request leaves out the products, which the order already holds
+ * since it was created.
  */
 @Builder
 @Getter
 @ToString
 @Jacksonized
-public class MarkOrderCompleteRequest {
+@ProductsOrTransactionId
+public class MarkOrderCompleteRequest implements OrderProductsRequest {
     
     @NotBlank
     @Email
@@ -38,10 +44,13 @@ public class MarkOrderCompleteRequest {
     @NotBlank
     private final String orderNumber;
 
-    @NotEmpty
     private final List<Product> products;
     
     @PositiveOrZero
     private final double orderTotal;
-    
-}
\ No newline at end of file
+
+    @Override
+    public UUID orderTransactionId() {
+        return transactionId;
+    }
+}
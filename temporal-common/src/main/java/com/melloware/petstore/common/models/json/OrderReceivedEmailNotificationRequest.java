@@ -6,20 +6,28 @@ import java.util.UUID;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 
+import com.melloware.petstore.common.models.validation.OrderProductsRequest;
+import com.melloware.petstore.common.models.validation.ProductsOrTransactionId;
+
 import lombok.Builder;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.jackson.Jacksonized;
 
-@Builder
+/**
+ * Request to send the order received email
+ * <p>
+ * The products are resolved from the order when a slim request carries none.
+ */
+@Builder(toBuilder = true)
 @Getter
 @ToString
 @Jacksonized
-public class OrderReceivedEmailNotificationRequest {
+@ProductsOrTransactionId
+public class OrderReceivedEmailNotificationRequest implements OrderProductsRequest {
 
     @Builder.Default
     private final String type = "normal";
@@ -34,9 +42,12 @@ public class OrderReceivedEmailNotificationRequest {
     @PastOrPresent
     private final ZonedDateTime orderDate;
 
-    @NotEmpty
     private final List<Product> products;
 
     private final double orderTotal;
 
-}
\ No newline at end of file
+    @Override
+    public UUID orderTransactionId() {
+        return transactionNumber;
+    }
+}
@@ -5,24 +5,28 @@ import java.util.List;
 import java.util.UUID;
 
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 
+import com.melloware.petstore.common.models.validation.OrderProductsRequest;
+import com.melloware.petstore.common.models.validation.ProductsOrTransactionId;
+
 import lombok.Builder;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.jackson.Jacksonized;
 
 /**
- *
- 
+ * Request to send the order completed email
+ * <p>
+ * The products are resolved from the order when a slim request carries none.
  */
-@Builder
+@Builder(toBuilder = true)
 @Getter
 @ToString
 @Jacksonized
-public class OrderSuccessEmailNotificationRequest {
+@ProductsOrTransactionId
+public class OrderSuccessEmailNotificationRequest implements OrderProductsRequest {
 
     @Builder.Default
     private final String type = "success";
@@ -42,9 +46,12 @@ public class OrderSuccessEmailNotificationRequest {
     @NotBlank
     private final String trackingNumber;
 
-    @NotEmpty
     private final List<Product> products;
 
     private final double orderTotal;
 
-}
\ No newline at end of file
+    @Override
+    public UUID orderTransactionId() {
+        return transactionNumber;
+    }
+}
@@ -0,0 +1,27 @@
+package com.melloware.petstore.common.models.json;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Request object to release an authorization which was never captured
+ */
+@SuperBuilder
+@Getter
+@ToString
+@Jacksonized
+public class VoidPaymentRequest extends RequiredFieldsBaseBuilder {
+
+    @NotNull
+    private final UUID transactionId;
+
+    /**
+     * Authorization code returned by the authorization
+     */
+    @NotNull
+    private final UUID authorizationCode;
+}
@@ -4,6 +4,8 @@ import java.util.UUID;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
+import com.melloware.petstore.common.models.enums.OrderStatus;
+
 import lombok.Builder;
 import lombok.Getter;
 import lombok.ToString;
@@ -23,4 +25,23 @@ public class WorkflowInitiationResponse {
      */
     @Schema(description = "The unique identifier for the initiated transaction", example = "123e4567-e89b-12d3-a456-426614174000")
     private final UUID transactionId;
+
+    /**
+     * The order number, when the response waited for the order to be created.
+     */
+    @Schema(description = "The order number, only when the response waited for the order to be created", example = "PET-ORD-1a2b3c4d-5e6f-7a8b")
+    private final String orderNumber;
+
+    /**
+     * The status of the order, when the response waited for the order to be
+     * created.
+     */
+    @Schema(description = "The status of the order, only when the response waited for the order to be created", example = "PENDING")
+    private final OrderStatus status;
+
+    /**
+     * The reason the workflow could not be started, if any.
+     */
+    @Schema(description = "The reason the workflow could not be started, empty if it was started", example = "Workflow execution already started")
+    private final String error;
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.melloware.petstore.common.models.validation;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.melloware.petstore.common.models.json.Product;
+
+/**
+ * Activity request carrying the products of an order, or only the transaction
+ * id of the order in a slim request.
+ */
+public interface OrderProductsRequest {
+
+    /**
+     * Returns the products of the order.
+     *
+     * @return the products, {@code null} or empty in a slim request
+     */
+    List<Product> getProducts();
+
+    /**
+     * Returns the transaction id the products of a slim request are resolved
+     * from.
+     *
+     * @return the transaction id of the order
+     */
+    UUID orderTransactionId();
+}
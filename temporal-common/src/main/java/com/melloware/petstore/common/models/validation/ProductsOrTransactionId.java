@@ -0,0 +1,27 @@
+package com.melloware.petstore.common.models.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+/**
+ * Requires an {@link OrderProductsRequest} to carry its products, or the
+ * transaction id of the order to resolve them from in a slim request.
+ */
+@Documented
+@Constraint(validatedBy = ProductsOrTransactionIdValidator.class)
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ProductsOrTransactionId {
+
+    String message() default "Products or the transaction id of the order are required";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,20 @@
+package com.melloware.petstore.common.models.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Validates {@link ProductsOrTransactionId}.
+ */
+public class ProductsOrTransactionIdValidator
+        implements ConstraintValidator<ProductsOrTransactionId, OrderProductsRequest> {
+
+    @Override
+    public boolean isValid(OrderProductsRequest request, ConstraintValidatorContext context) {
+        if (request == null) {
+            return true;
+        }
+        return (request.getProducts() != null && !request.getProducts().isEmpty())
+                || request.orderTransactionId() != null;
+    }
+}
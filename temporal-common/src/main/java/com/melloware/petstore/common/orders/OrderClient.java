@@ -0,0 +1,34 @@
+package com.melloware.petstore.common.orders;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+
+import com.melloware.petstore.common.models.json.Product;
+
+/**
+ * REST client of the order service, configured with
+ * {@code quarkus.rest-client.order-service.url}.
+ */
+@Path("/api/v1/orders")
+@RegisterRestClient(configKey = "order-service")
+public interface OrderClient {
+
+    /**
+     * Returns the products saved when the order was created.
+     *
+     * @param transactionId the transaction id of the order
+     * @return the products of the order
+     */
+    @GET
+    @Path("/{transactionId}/products")
+    @Produces(MediaType.APPLICATION_JSON)
+    List<Product> getProducts(@PathParam("transactionId") UUID transactionId);
+}
@@ -0,0 +1,65 @@
+package com.melloware.petstore.common.orders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.melloware.petstore.common.models.json.Product;
+
+/**
+ * Resolves the products of slim activity requests, which only carry the
+ * transaction id of the order.
+ * <p>
+ * The products are read from the order service, which saved them as the line
+ * items of the order, so every service sees them wherever it runs. The products
+ * of an order never change once it is created, and the same order is usually
+ * handled by several activities of the same worker, so resolved lists are
+ * cached up to {@code petstore.order-products.cache.maximum-size} orders for
+ * {@code petstore.order-products.cache.expire-after-write}.
+ */
+@ApplicationScoped
+public class OrderProducts {
+
+    private final OrderClient orderClient;
+    private final Cache<UUID, List<Product>> cache;
+
+    @Inject
+    public OrderProducts(@RestClient OrderClient orderClient,
+            @ConfigProperty(name = "petstore.order-products.cache.maximum-size", defaultValue = "1000")
+            long maximumSize,
+            @ConfigProperty(name = "petstore.order-products.cache.expire-after-write", defaultValue = "1h")
+            Duration expireAfterWrite) {
+        this.orderClient = orderClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Returns the given products, or resolves the products of the order when a
+     * slim request carries none.
+     *
+     * @param transactionId the transaction id of the order
+     * @param products      the products of the request, {@code null} or empty in
+     *                      a slim request
+     * @return the product list
+     * @throws jakarta.ws.rs.WebApplicationException if the order service cannot
+     *                                               return the products, which
+     *                                               fails the activity attempt
+     */
+    public List<Product> of(UUID transactionId, List<Product> products) {
+        if (products != null && !products.isEmpty()) {
+            return products;
+        }
+        return cache.get(transactionId, id -> List.copyOf(orderClient.getProducts(id)));
+    }
+}
@@ -0,0 +1,110 @@
+package com.melloware.petstore.common.retry;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import jakarta.validation.ConstraintViolationException;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.melloware.petstore.common.models.exceptions.BadPaymentInfoException;
+import com.melloware.petstore.common.models.exceptions.OutOfStockException;
+import com.melloware.petstore.common.models.exceptions.PaymentDeclinedException;
+import com.melloware.petstore.common.models.exceptions.PurchasingException;
+
+import io.quarkus.arc.ArcUndeclaredThrowableException;
+import io.temporal.failure.ApplicationFailure;
+
+/**
+ * Classifies activity failures as retryable or not.
+ * <p>
+ * The whole cause chain is inspected, so a business exception wrapped by a
+ * proxy or by Temporal itself is still recognized. A link of the chain matches
+ * when its class name, or the type of an {@link ApplicationFailure}, is one of
+ * the non-retryable types.
+ */
+public class FailureClassifier {
+
+    /**
+     * Failures which will not succeed by retrying: business errors, invalid
+     * input and programming errors.
+     */
+    public static final List<String> DEFAULT_NON_RETRYABLE_TYPES = List.of(
+            ArcUndeclaredThrowableException.class.getName(),
+            BadPaymentInfoException.class.getName(),
+            ConstraintViolationException.class.getName(),
+            JsonMappingException.class.getName(),
+            NullPointerException.class.getName(),
+            OutOfStockException.class.getName(),
+            PaymentDeclinedException.class.getName(),
+            PurchasingException.class.getName(),
+            IllegalArgumentException.class.getName());
+
+    private final Set<String> nonRetryableTypes;
+
+    /**
+     * Creates a classifier for the default non-retryable types and the given
+     * additional ones.
+     *
+     * @param additionalTypes fully qualified names of other non-retryable
+     *                        exceptions
+     */
+    public FailureClassifier(Collection<String> additionalTypes) {
+        Set<String> types = new LinkedHashSet<>(DEFAULT_NON_RETRYABLE_TYPES);
+        types.addAll(additionalTypes);
+        this.nonRetryableTypes = Set.copyOf(types);
+    }
+
+    /**
+     * Returns all the non-retryable types, for {@code RetryOptions.setDoNotRetry}.
+     *
+     * @return the fully qualified exception names
+     */
+    public String[] getNonRetryableTypes() {
+        return nonRetryableTypes.toArray(String[]::new);
+    }
+
+    /**
+     * Finds the first link of the cause chain which must not be retried.
+     *
+     * @param failure the failure to classify
+     * @return the type of the non-retryable link, empty if the failure can be
+     *         retried
+     */
+    public Optional<String> findNonRetryableType(Throwable failure) {
+        for (Throwable link : ExceptionUtils.getThrowableList(failure)) {
+            if (link instanceof ApplicationFailure applicationFailure) {
+                if (applicationFailure.isNonRetryable() || nonRetryableTypes.contains(applicationFailure.getType())) {
+                    return Optional.of(applicationFailure.getType());
+                }
+            } else if (nonRetryableTypes.contains(link.getClass().getName())) {
+                return Optional.of(link.getClass().getName());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Checks whether any link of the cause chain is of the given type, either
+     * directly or as the type of an {@link ApplicationFailure}.
+     *
+     * @param failure       the failure to inspect
+     * @param exceptionType the exception type to look for
+     * @return {@code true} if a link of the chain matches
+     */
+    public static boolean hasType(Throwable failure, Class<?> exceptionType) {
+        String typeName = exceptionType.getName();
+        for (Throwable link : ExceptionUtils.getThrowableList(failure)) {
+            if (exceptionType.isInstance(link)
+                    || link instanceof ApplicationFailure applicationFailure
+                            && typeName.equals(applicationFailure.getType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,124 @@
+package com.melloware.petstore.common.retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits retries to a share of the first attempts, so that an outage of a
+ * dependency does not multiply the load on it.
+ * <p>
+ * Every first attempt deposits {@code retryRatio} tokens and every retry
+ * withdraws one. A small number of tokens is also added every second so that
+ * retries are still possible when there is little traffic. The balance is
+ * capped, which bounds the burst of retries after a quiet period.
+ */
+public class RetryBudget {
+
+    // Longest sleep between two looks at the balance, first attempts also refill it
+    private static final long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final double retryRatio;
+    private final double minRetriesPerSecond;
+    private final double maxBalance;
+    private double balance;
+    private long lastRefillNanos;
+
+    /**
+     * Creates a new budget, initially full.
+     *
+     * @param retryRatio          retries allowed per first attempt, for example
+     *                            {@code 0.2} for 20%
+     * @param minRetriesPerSecond retries always allowed per second
+     * @param maxBalance          the most retries which can be saved up
+     */
+    public RetryBudget(double retryRatio, double minRetriesPerSecond, double maxBalance) {
+        if (retryRatio < 0 || minRetriesPerSecond < 0 || maxBalance < 1) {
+            throw new IllegalArgumentException("Retry ratio and rate must be positive and max balance at least 1");
+        }
+        this.retryRatio = retryRatio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxBalance = maxBalance;
+        this.balance = maxBalance;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Records a first attempt, earning retries.
+     */
+    public synchronized void onFirstAttempt() {
+        refill();
+        balance = Math.min(maxBalance, balance + retryRatio);
+    }
+
+    /**
+     * Withdraws a retry from the budget if there is one left.
+     *
+     * @return {@code true} if the retry may proceed
+     */
+    public synchronized boolean tryAcquireRetry() {
+        refill();
+        if (balance < 1) {
+            return false;
+        }
+        balance--;
+        return true;
+    }
+
+    /**
+     * Withdraws a retry from the budget, waiting for one to become available.
+     *
+     * @param maxWait the longest wait for a retry
+     * @return {@code true} if the retry may proceed, {@code false} if the budget
+     *         had no retry within the wait
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean acquireRetry(Duration maxWait) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (!tryAcquireRetry()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            Duration untilRetry = timeUntilRetry();
+            long sleep = untilRetry == null ? MAX_POLL_NANOS
+                    : Math.max(1, Math.min(untilRetry.toNanos(), MAX_POLL_NANOS));
+            TimeUnit.NANOSECONDS.sleep(Math.min(sleep, remaining));
+        }
+        return true;
+    }
+
+    /**
+     * Returns how long until the next retry is available from the per second
+     * refill alone, ignoring first attempts.
+     *
+     * @return the time until the balance reaches one retry, zero if it already
+     *         has, or {@code null} if the budget has no per second refill
+     */
+    public synchronized Duration timeUntilRetry() {
+        refill();
+        if (balance >= 1) {
+            return Duration.ZERO;
+        }
+        if (minRetriesPerSecond == 0) {
+            return null;
+        }
+        return Duration.ofNanos((long) Math.ceil((1 - balance) / minRetriesPerSecond * TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    /**
+     * Returns the number of retries currently available.
+     *
+     * @return the balance
+     */
+    public synchronized double getBalance() {
+        refill();
+        return balance;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double seconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        lastRefillNanos = now;
+        balance = Math.min(maxBalance, balance + seconds * minRetriesPerSecond);
+    }
+}
@@ -0,0 +1,161 @@
+package com.melloware.petstore.common.retry;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Singleton;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.arc.Unremovable;
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptor;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptorBase;
+import io.temporal.common.interceptors.WorkerInterceptorBase;
+import io.temporal.failure.ApplicationFailure;
+
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Worker interceptor enforcing a {@link RetryBudget} and the
+ * {@link FailureClassifier} on every activity executed by the service.
+ * <p>
+ * Every activity type has its own budget, so the retries of a failing
+ * dependency never use up the budget of the healthy ones. A retry over budget
+ * holds its activity slot and waits for the budget, for at most
+ * {@code petstore.temporal.retry-budget.max-wait} and a quarter of its
+ * start-to-close timeout, which keeps the worker from taking more work for the
+ * failing dependency. A retry still over budget after the wait goes ahead:
+ * failing it would use up an attempt of the retry policy without calling the
+ * dependency. Compensations are never held back, the activity types in
+ * {@link #DEFAULT_EXEMPT_ACTIVITY_TYPES} and
+ * {@code petstore.temporal.retry-budget.exempt-activity-types} have no budget.
+ * An exception with a non-retryable type anywhere in its cause chain is
+ * rethrown as a non-retryable {@link ApplicationFailure} of that type.
+ * <p>
+ * Attempts are counted in the Temporal metrics scope of the activity as
+ * {@code petstore_activity_attempts}, tagged {@code attempt=first|retry}, the
+ * retries which waited for the budget as {@code petstore_activity_retries_delayed}
+ * and those which went ahead over budget as
+ * {@code petstore_activity_retries_over_budget}.
+ */
+@JBossLog
+@Singleton
+@Unremovable
+public class RetryBudgetInterceptor extends WorkerInterceptorBase {
+
+    /**
+     * Compensation activity types, exempt from the budget
+     */
+    public static final List<String> DEFAULT_EXEMPT_ACTIVITY_TYPES = List.of(
+            "CancelShipment",
+            "ReleaseInventory",
+            "ReversePaymentTransactions",
+            "VoidPayment");
+
+    @ConfigProperty(name = "petstore.temporal.retry-budget.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "petstore.temporal.retry-budget.percent", defaultValue = "20")
+    double percent;
+
+    @ConfigProperty(name = "petstore.temporal.retry-budget.min-per-second", defaultValue = "1")
+    double minRetriesPerSecond;
+
+    @ConfigProperty(name = "petstore.temporal.retry-budget.max-balance", defaultValue = "100")
+    double maxBalance;
+
+    @ConfigProperty(name = "petstore.temporal.retry-budget.max-wait", defaultValue = "10s")
+    Duration maxWait;
+
+    @ConfigProperty(name = "petstore.temporal.retry-budget.exempt-activity-types")
+    Optional<List<String>> exemptActivityTypes;
+
+    @ConfigProperty(name = "petstore.temporal.retry.do-not-retry")
+    Optional<List<String>> doNotRetry;
+
+    // Budget by activity type, the handful of types registered on the worker
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+    private FailureClassifier classifier;
+    private Set<String> exempt;
+
+    @PostConstruct
+    void init() {
+        classifier = new FailureClassifier(doNotRetry.orElse(List.of()));
+        Set<String> types = new HashSet<>(DEFAULT_EXEMPT_ACTIVITY_TYPES);
+        types.addAll(exemptActivityTypes.orElse(List.of()));
+        exempt = Set.copyOf(types);
+        log.infof("Activity retry budget: %s", enabled ? percent + "% of first attempts per activity type" : "off");
+    }
+
+    @Override
+    public ActivityInboundCallsInterceptor interceptActivity(ActivityInboundCallsInterceptor next) {
+        return new ActivityInboundCallsInterceptorBase(next) {
+
+            private ActivityExecutionContext context;
+
+            @Override
+            public void init(ActivityExecutionContext context) {
+                this.context = context;
+                super.init(context);
+            }
+
+            @Override
+            public ActivityOutput execute(ActivityInput input) {
+                admit(context);
+                try {
+                    return super.execute(input);
+                } catch (ApplicationFailure e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    Optional<String> type = classifier.findNonRetryableType(e);
+                    if (type.isPresent()) {
+                        throw ApplicationFailure.newNonRetryableFailureWithCause(e.getMessage(), type.get(), e);
+                    }
+                    throw e;
+                }
+            }
+        };
+    }
+
+    private void admit(ActivityExecutionContext context) {
+        boolean retry = context.getInfo().getAttempt() > 1;
+        context.getMetricsScope().tagged(Map.of("attempt", retry ? "retry" : "first"))
+                .counter("petstore_activity_attempts").inc(1);
+        if (!enabled) {
+            return;
+        }
+        String activityType = context.getInfo().getActivityType();
+        if (exempt.contains(activityType)) {
+            return;
+        }
+        RetryBudget budget = budgets.computeIfAbsent(activityType,
+                type -> new RetryBudget(percent / 100, minRetriesPerSecond, maxBalance));
+        if (!retry) {
+            budget.onFirstAttempt();
+        } else if (!budget.tryAcquireRetry()) {
+            context.getMetricsScope().counter("petstore_activity_retries_delayed").inc(1);
+            Duration wait = maxWait;
+            Duration startToCloseTimeout = context.getInfo().getStartToCloseTimeout();
+            if (startToCloseTimeout != null && !startToCloseTimeout.isZero()
+                    && startToCloseTimeout.dividedBy(4).compareTo(wait) < 0) {
+                wait = startToCloseTimeout.dividedBy(4);
+            }
+            try {
+                if (!budget.acquireRetry(wait)) {
+                    context.getMetricsScope().counter("petstore_activity_retries_over_budget").inc(1);
+                    log.debugf("Retry budget of %s still exhausted after %s, retrying anyway", activityType, wait);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw ApplicationFailure.newFailure("Interrupted waiting for the retry budget", "RetryBudgetInterrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.melloware.petstore.common.utils;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Generator of the unique ids used across the petstore: request and
+ * transaction ids, order numbers, tracking numbers and authorization codes.
+ * <p>
+ * Ids which grant access to something are random UUIDs (version 4): the
+ * transaction id is all a client needs to read the status and progress of an
+ * order, and an authorization code stands for a payment, so neither may be
+ * guessed from another. Their bits come from a {@link SecureRandom} of the
+ * calling thread, rather than the single generator shared by every caller of
+ * {@link UUID#randomUUID()}.
+ * <p>
+ * Ids which are no secret are time-ordered: UUID version 7 (RFC 9562), a 48
+ * bit Unix millisecond timestamp followed by 74 random bits, and order numbers
+ * led by the timestamp. Ids created close in time sort next to each other, both
+ * as Postgres {@code uuid} values and as the fixed width lower case strings
+ * produced here, so new rows are appended to the right of the B-tree index
+ * instead of being scattered over random pages. The timestamp already gives
+ * away when they were created, so their random bits only have to avoid
+ * collisions and come from {@link ThreadLocalRandom}.
+ */
+@UtilityClass
+public class IdGenerator {
+
+    /**
+     * Prefix of every order number
+     */
+    public static final String ORDER_NUMBER_PREFIX = "PET-ORD-";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<SecureRandom> SECURE_RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    /**
+     * Creates a new time-ordered UUID (version 7), for ids which are no secret.
+     *
+     * @return the UUID
+     */
+    public static UUID newTimeOrderedUuid() {
+        long timestamp = System.currentTimeMillis();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // 48 bit timestamp, 4 bit version, 12 random bits
+        long mostSigBits = (timestamp << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+        // 2 bit variant, 62 random bits
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Creates a new transaction id, which identifies an order to its client.
+     *
+     * @return the random transaction id
+     */
+    public static UUID newTransactionId() {
+        return newRandomUuid();
+    }
+
+    /**
+     * Creates a new request id, which becomes the transaction id of an order.
+     *
+     * @return the random request id in canonical UUID form
+     */
+    public static String newRequestId() {
+        return newTransactionId().toString();
+    }
+
+    /**
+     * Creates a new order number in the form
+     * {@code PET-ORD-tttttttt-tttt-rrrr-rrrr} where {@code t} is the hex encoded
+     * creation time in milliseconds and {@code r} are random hex digits.
+     * <p>
+     * Order numbers are fixed width, so they sort by creation time.
+     *
+     * @return the order number
+     */
+    public static String newOrderNumber() {
+        long timestamp = System.currentTimeMillis();
+        int random = ThreadLocalRandom.current().nextInt();
+
+        char[] chars = new char[ORDER_NUMBER_PREFIX.length() + 23];
+        ORDER_NUMBER_PREFIX.getChars(0, ORDER_NUMBER_PREFIX.length(), chars, 0);
+        int pos = ORDER_NUMBER_PREFIX.length();
+        pos = writeHex(chars, pos, timestamp >>> 16, 8);
+        chars[pos++] = '-';
+        pos = writeHex(chars, pos, timestamp, 4);
+        chars[pos++] = '-';
+        pos = writeHex(chars, pos, random >>> 16, 4);
+        chars[pos++] = '-';
+        writeHex(chars, pos, random, 4);
+        return new String(chars);
+    }
+
+    /**
+     * Creates a new shipment tracking number.
+     *
+     * @return the tracking number in canonical UUID form
+     */
+    public static String newTrackingNumber() {
+        return newTimeOrderedUuid().toString();
+    }
+
+    /**
+     * Creates a new payment authorization code.
+     *
+     * @return the random authorization code
+     */
+    public static UUID newAuthorizationCode() {
+        return newRandomUuid();
+    }
+
+    /**
+     * Creates a random UUID (version 4) from the {@link SecureRandom} of the
+     * calling thread.
+     *
+     * @return the UUID
+     */
+    private static UUID newRandomUuid() {
+        byte[] bytes = new byte[16];
+        SECURE_RANDOM.get().nextBytes(bytes);
+        // 4 bit version, 2 bit variant, 122 random bits
+        bytes[6] = (byte) ((bytes[6] & 0x0F) | 0x40);
+        bytes[8] = (byte) ((bytes[8] & 0x3F) | 0x80);
+        long mostSigBits = 0;
+        long leastSigBits = 0;
+        for (int i = 0; i < 8; i++) {
+            mostSigBits = (mostSigBits << 8) | (bytes[i] & 0xFF);
+            leastSigBits = (leastSigBits << 8) | (bytes[i + 8] & 0xFF);
+        }
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Writes the lowest {@code digits} hex digits of a value.
+     *
+     * @param chars  the destination
+     * @param pos    the position of the first digit
+     * @param value  the value
+     * @param digits the number of digits to write
+     * @return the position after the last digit
+     */
+    private static int writeHex(char[] chars, int pos, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[pos + i] = HEX_DIGITS[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        return pos + digits;
+    }
+}
@@ -2,6 +2,8 @@ package com.melloware.petstore.common.utils;
 
 import java.util.Objects;
 
+import com.melloware.petstore.common.retry.FailureClassifier;
+
 import io.temporal.failure.ApplicationFailure;
 
 /**
@@ -17,22 +19,18 @@ import io.temporal.failure.ApplicationFailure;
 public class TemporalActivityExceptionChecker {
 
     /**
-     * Checks if the given exception's cause is an {@link ApplicationFailure}
-     * and if the type of that failure matches the specified exception class.
+     * Checks if any exception of the cause chain is an {@link ApplicationFailure}
+     * whose type matches the specified exception class, or an instance of it.
      * 
      * @param e the exception to check
      * @param exceptionClass the class of the exception type to match against
-     * @return {@code true} if the cause of the exception is an {@link ApplicationFailure}
-     *         and its type matches the specified exception class; {@code false} otherwise
+     * @return {@code true} if an exception of the cause chain matches the specified
+     *         exception class; {@code false} otherwise
      */
     public static boolean isExceptionType(Exception e, Class<?> exceptionClass) {
         Objects.requireNonNull(e, "Exception is required");
         Objects.requireNonNull(exceptionClass, "Exception class is required");
-        
-        if (e.getCause() instanceof ApplicationFailure) {
-            String exceptionType = ((ApplicationFailure) (e.getCause())).getType();
-            return exceptionType.equals(exceptionClass.getName());
-        }
-        return false;
+
+        return FailureClassifier.hasType(e, exceptionClass);
     }
 }
\ No newline at end of file
@@ -0,0 +1,247 @@
+package com.melloware.petstore.common.worker;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.uber.m3.tally.NoopScope;
+import com.uber.m3.tally.Scope;
+
+import io.quarkus.arc.Unremovable;
+import io.quarkus.runtime.StartupEvent;
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.client.WorkflowClient;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptor;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptorBase;
+import io.temporal.common.interceptors.WorkerInterceptorBase;
+import io.temporal.failure.ApplicationFailure;
+
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Worker interceptor bounding the activities executed at once by a
+ * {@link ResourceBasedSlotLimit}, when
+ * {@code petstore.temporal.worker.slot-tuner.enabled=true}.
+ * <p>
+ * The worker slots of {@code quarkus.temporal.worker.max-concurrent-activity-execution-size}
+ * stay the hard ceiling, while the limit moves between
+ * {@code petstore.temporal.worker.slot-tuner.min} and {@code .max}: it grows
+ * while activities complete under {@code .latency-threshold}, and shrinks when
+ * they get slower or when the process goes above {@code .target-cpu} or
+ * {@code .target-heap}, sampled every {@code .sample-interval}.
+ * <p>
+ * The pollers keep taking tasks while worker slots are free, so an activity over
+ * the limit has already been dispatched to this pod. It waits on its worker
+ * thread for at most {@code .max-wait}, and never more than a quarter of its
+ * start-to-close timeout. It then fails with the retryable type
+ * {@value #SLOT_WAIT_TIMEOUT_TYPE} and a retry delay of {@code .retry-delay}, so
+ * the task goes back to the server where any pod can take it. Keep the worker
+ * slots close to {@code .max} and the activity pollers low, so that few tasks
+ * are taken beyond the limit. Local activities are not limited.
+ * <p>
+ * Every change of the limit is counted as {@code petstore_worker_slot_decisions}
+ * tagged {@code decision=grow|shrink} and {@code reason=latency|cpu|heap}, and
+ * every activity failed after the wait as {@code petstore_worker_slot_rejected}.
+ * The sampler publishes the state every interval, busy or idle, as the
+ * {@code petstore_worker_slot_limit}, {@code petstore_worker_slot_in_flight},
+ * {@code petstore_worker_slot_waiting}, {@code petstore_worker_cpu_load} and
+ * {@code petstore_worker_heap_occupancy} gauges. All of them are in the
+ * Temporal metrics scope of the worker, tagged with its {@code task_queue}.
+ * <p>
+ * With activities on virtual threads the execution only hands the activity
+ * over, so its latency means nothing and the tuner stays disabled.
+ */
+@JBossLog
+@Singleton
+@Unremovable
+public class ResourceBasedSlotInterceptor extends WorkerInterceptorBase {
+
+    /**
+     * Failure type of an activity which found no free slot in time
+     */
+    public static final String SLOT_WAIT_TIMEOUT_TYPE = "SlotWaitTimeout";
+
+    private final boolean enabled;
+    private final Duration sampleInterval;
+    private final Duration maxWait;
+    private final Duration retryDelay;
+    private final String taskQueue;
+    private final ResourceBasedSlotLimit limit;
+
+    @Inject
+    Instance<WorkflowClient> workflowClient;
+
+    // Metrics scope of the worker, set at startup
+    private volatile Scope scope = new NoopScope();
+    private ScheduledExecutorService sampler;
+
+    @Inject
+    public ResourceBasedSlotInterceptor(
+            @ConfigProperty(name = "petstore.temporal.worker.slot-tuner.enabled", defaultValue = "false")
+            boolean enabled,
+            @ConfigProperty(name = "petstore.temporal.worker.virtual-threads.enabled", defaultValue = "false")
+            boolean virtualThreads,
+            @ConfigProperty(name = "petstore.temporal.worker.slot-tuner.initial", defaultValue = "10")
+            int initialLimit,
+            @ConfigProperty(name = "petstore.temporal.worker.slot-tuner.min", defaultValue = "1")
+            int minLimit,
+            @ConfigProperty(name = "petstore.temporal.worker.slot-tuner.max") Optional<Integer> maxLimit,
+            @ConfigProperty(name = "petstore.temporal.worker.slot-tuner.backoff-ratio", defaultValue = "0.9")
+            double backoffRatio,
+            @ConfigProperty(name = "petstore.temporal.worker.slot-tuner.latency-threshold", defaultValue = "2s")
+            Duration latencyThreshold,
+            @ConfigProperty(name = "petstore.temporal.worker.slot-tuner.target-cpu", defaultValue = "0.8")
+            double targetCpu,
+            @ConfigProperty(name = "petstore.temporal.worker.slot-tuner.target-heap", defaultValue = "0.85")
+            double targetHeap,
+            @ConfigProperty(name = "petstore.temporal.worker.slot-tuner.sample-interval", defaultValue = "1s")
+            Duration sampleInterval,
+            @ConfigProperty(name = "petstore.temporal.worker.slot-tuner.max-wait", defaultValue = "5s")
+            Duration maxWait,
+            @ConfigProperty(name = "petstore.temporal.worker.slot-tuner.retry-delay", defaultValue = "5s")
+            Duration retryDelay,
+            WorkerTuning tuning) {
+        if (enabled && virtualThreads) {
+            log.warn("Activity slot tuner disabled, activities run on virtual threads");
+        }
+        int max = Math.min(maxLimit.orElse(Integer.MAX_VALUE), tuning.getMaxConcurrentActivityExecutionSize());
+        this.enabled = enabled && !virtualThreads;
+        this.sampleInterval = sampleInterval;
+        this.maxWait = maxWait;
+        this.retryDelay = retryDelay;
+        this.taskQueue = tuning.getTaskQueue();
+        this.limit = new ResourceBasedSlotLimit(Math.min(initialLimit, max), Math.min(minLimit, max), max,
+                backoffRatio, latencyThreshold, targetCpu, targetHeap);
+        if (this.enabled) {
+            log.infof("Activity slot tuner: limit %d, between %d and %d, latency %s, CPU %.0f%%, heap %.0f%%, "
+                    + "wait %s", limit.getLimit(), Math.min(minLimit, max), max, latencyThreshold, targetCpu * 100,
+                    targetHeap * 100, maxWait);
+        }
+    }
+
+    void start(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        scope = workflowClient.get().getWorkflowServiceStubs().getOptions().getMetricsScope()
+                .tagged(Map.of("task_queue", taskQueue));
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "activity-slot-tuner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = sampleInterval.toMillis();
+        sampler.scheduleWithFixedDelay(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+    }
+
+    @Override
+    public ActivityInboundCallsInterceptor interceptActivity(ActivityInboundCallsInterceptor next) {
+        if (!enabled) {
+            return next;
+        }
+        return new ActivityInboundCallsInterceptorBase(next) {
+
+            private ActivityExecutionContext context;
+
+            @Override
+            public void init(ActivityExecutionContext context) {
+                this.context = context;
+                super.init(context);
+            }
+
+            @Override
+            public ActivityOutput execute(ActivityInput input) {
+                if (context.getInfo().isLocal()) {
+                    return super.execute(input);
+                }
+                acquire(context.getInfo().getStartToCloseTimeout());
+                long start = System.nanoTime();
+                int before = limit.getLimit();
+                boolean completed = false;
+                try {
+                    ActivityOutput output = super.execute(input);
+                    completed = true;
+                    return output;
+                } finally {
+                    if (completed) {
+                        limit.onCompleted(System.nanoTime() - start);
+                    } else {
+                        limit.onFailed();
+                    }
+                    int after = limit.getLimit();
+                    if (after != before) {
+                        count(after > before ? "grow" : "shrink", "latency");
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Waits for a permit, for at most the max wait and a quarter of the
+     * start-to-close timeout of the activity.
+     *
+     * @throws ApplicationFailure of the retryable type
+     *                            {@value #SLOT_WAIT_TIMEOUT_TYPE} if no permit
+     *                            was released in time
+     */
+    private void acquire(Duration startToCloseTimeout) {
+        Duration wait = maxWait;
+        if (startToCloseTimeout != null && !startToCloseTimeout.isZero()
+                && startToCloseTimeout.dividedBy(4).compareTo(wait) < 0) {
+            wait = startToCloseTimeout.dividedBy(4);
+        }
+        boolean acquired;
+        try {
+            acquired = limit.acquire(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ApplicationFailure.newFailure("Interrupted waiting for an activity slot", "SlotInterrupted");
+        }
+        if (!acquired) {
+            scope.counter("petstore_worker_slot_rejected").inc(1);
+            throw ApplicationFailure.newFailureWithCauseAndDelay(
+                    "No activity slot within " + wait + ", limit " + limit.getLimit(), SLOT_WAIT_TIMEOUT_TYPE, null,
+                    retryDelay);
+        }
+    }
+
+    private void sample() {
+        try {
+            limit.sample().ifPresent(pressure -> {
+                count("shrink", pressure == ResourceBasedSlotLimit.Pressure.CPU ? "cpu" : "heap");
+                log.debugf("Activity slot limit shrunk to %d on %s pressure", limit.getLimit(), pressure);
+            });
+            scope.gauge("petstore_worker_slot_limit").update(limit.getLimit());
+            scope.gauge("petstore_worker_slot_in_flight").update(limit.getInFlight());
+            scope.gauge("petstore_worker_slot_waiting").update(limit.getWaiting());
+            scope.gauge("petstore_worker_cpu_load").update(limit.getCpuLoad());
+            scope.gauge("petstore_worker_heap_occupancy").update(limit.getHeapOccupancy());
+        } catch (RuntimeException e) {
+            log.warnf("Unable to sample the process load: %s", e.getMessage());
+        }
+    }
+
+    private void count(String decision, String reason) {
+        scope.tagged(Map.of("decision", decision, "reason", reason))
+                .counter("petstore_worker_slot_decisions").inc(1);
+    }
+}
@@ -0,0 +1,196 @@
+package com.melloware.petstore.common.worker;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.melloware.petstore.common.concurrency.AdaptiveConcurrencyLimit;
+
+/**
+ * Limit of the activities executed at once by a worker, adapting to the load
+ * of the process and of the dependencies the activities call.
+ * <p>
+ * The limit is an {@link AdaptiveConcurrencyLimit}: it grows while activities
+ * complete faster than the latency threshold with at least half of the limit
+ * in use, and shrinks when they get slower. It also shrinks whenever a
+ * {@link #sample() sample} finds the process CPU load or the heap occupancy
+ * above its target. An activity over the limit waits for a permit, holding its
+ * worker slot, for a bounded time, so the worker slots bound the limit from
+ * above.
+ */
+public class ResourceBasedSlotLimit {
+
+    /**
+     * Cause of a shrink of the limit found by {@link #sample()}
+     */
+    public enum Pressure {
+        CPU, HEAP
+    }
+
+    // Longest wait before the limit is checked again without a signal
+    private static final long RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final double targetCpu;
+    private final double targetHeap;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private volatile double cpuLoad;
+    private volatile double heapOccupancy;
+
+    /**
+     * Creates a new limit.
+     *
+     * @param initialLimit     the starting limit
+     * @param minLimit         the lowest the limit can drop to
+     * @param maxLimit         the highest the limit can grow to, at most the
+     *                         worker slots
+     * @param backoffRatio     the factor applied to the limit on pressure
+     * @param latencyThreshold activities slower than this shrink the limit
+     * @param targetCpu        process CPU load, from 0 to 1, above which the
+     *                         limit shrinks
+     * @param targetHeap       heap occupancy after collection, from 0 to 1, above
+     *                         which the limit shrinks
+     */
+    public ResourceBasedSlotLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+            Duration latencyThreshold, double targetCpu, double targetHeap) {
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, backoffRatio, latencyThreshold);
+        this.targetCpu = targetCpu;
+        this.targetHeap = targetHeap;
+    }
+
+    /**
+     * Waits until an activity may execute, for at most the given time.
+     *
+     * @param maxWait the longest wait for a permit
+     * @return {@code true} if the activity may execute, {@code false} if no
+     *         permit was released in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean acquire(Duration maxWait) throws InterruptedException {
+        if (limit.tryAcquire()) {
+            return true;
+        }
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        waiting.incrementAndGet();
+        lock.lock();
+        try {
+            while (!limit.tryAcquire()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                released.awaitNanos(Math.min(remaining, RECHECK_NANOS));
+            }
+            return true;
+        } finally {
+            lock.unlock();
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Releases the permit of an activity which completed.
+     *
+     * @param latencyNanos the execution time of the activity
+     */
+    public void onCompleted(long latencyNanos) {
+        limit.onSuccess(latencyNanos);
+        signal();
+    }
+
+    /**
+     * Releases the permit of an activity which failed, saying nothing about the
+     * load.
+     */
+    public void onFailed() {
+        limit.onIgnore();
+        signal();
+    }
+
+    /**
+     * Samples the CPU load and heap occupancy of the process, and shrinks the
+     * limit if either is above its target.
+     *
+     * @return the pressure which shrank the limit, empty if none
+     */
+    public Optional<Pressure> sample() {
+        cpuLoad = processCpuLoad();
+        heapOccupancy = heapOccupancy();
+        Pressure pressure = null;
+        if (cpuLoad > targetCpu) {
+            pressure = Pressure.CPU;
+        } else if (heapOccupancy > targetHeap) {
+            pressure = Pressure.HEAP;
+        }
+        if (pressure != null) {
+            limit.backoff();
+        }
+        return Optional.ofNullable(pressure);
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return limit.getInFlight();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public double getCpuLoad() {
+        return cpuLoad;
+    }
+
+    public double getHeapOccupancy() {
+        return heapOccupancy;
+    }
+
+    private void signal() {
+        if (waiting.get() > 0) {
+            lock.lock();
+            try {
+                released.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static double processCpuLoad() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return Math.max(0, os.getProcessCpuLoad());
+        }
+        return 0;
+    }
+
+    /**
+     * Occupancy of the fullest heap pool after its last collection, which
+     * unlike the current usage does not count garbage.
+     */
+    private static double heapOccupancy() {
+        double occupancy = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null && usage.getMax() > 0) {
+                occupancy = Math.max(occupancy, (double) usage.getUsed() / usage.getMax());
+            }
+        }
+        return occupancy;
+    }
+}
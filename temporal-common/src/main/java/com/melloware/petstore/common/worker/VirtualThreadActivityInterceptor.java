@@ -0,0 +1,137 @@
+package com.melloware.petstore.common.worker;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.MDC;
+
+import com.melloware.petstore.common.retry.FailureClassifier;
+
+import io.quarkus.arc.Unremovable;
+import io.quarkus.virtual.threads.VirtualThreads;
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.activity.ManualActivityCompletionClient;
+import io.temporal.client.ActivityCompletionException;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptor;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptorBase;
+import io.temporal.common.interceptors.WorkerInterceptorBase;
+import io.temporal.failure.ApplicationFailure;
+import io.temporal.failure.TemporalFailure;
+
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Worker interceptor running the activities of the service on virtual threads
+ * when {@code petstore.temporal.worker.virtual-threads.enabled=true}.
+ * <p>
+ * The activity is switched to local manual completion: the SDK thread is given
+ * back as soon as the execution is handed to a virtual thread, while the slot
+ * stays held until the activity completes, so
+ * {@code quarkus.temporal.worker.max-concurrent-activity-execution-size} still
+ * bounds the executions in flight. Activities blocked on JDBC, SMTP or remote
+ * calls then no longer each hold a platform thread, and the limit can be raised
+ * to what the dependency allows.
+ * <p>
+ * The MDC is copied to the virtual thread. The activity execution context is
+ * not, so offloaded activities must not call {@code Activity.getExecutionContext()},
+ * for example to heartbeat. Local activities always run on the SDK thread. A
+ * failure is completed as non-retryable when its cause chain holds one of the
+ * {@link FailureClassifier} types, as it would be on the SDK thread.
+ */
+@JBossLog
+@Singleton
+@Unremovable
+public class VirtualThreadActivityInterceptor extends WorkerInterceptorBase {
+
+    private final boolean enabled;
+    private final ExecutorService executor;
+    private final FailureClassifier classifier;
+
+    @Inject
+    public VirtualThreadActivityInterceptor(
+            @ConfigProperty(name = "petstore.temporal.worker.virtual-threads.enabled", defaultValue = "false")
+            boolean enabled,
+            @ConfigProperty(name = "petstore.temporal.retry.do-not-retry") Optional<List<String>> doNotRetry,
+            @VirtualThreads ExecutorService executor) {
+        this(enabled, executor, new FailureClassifier(doNotRetry.orElse(List.of())));
+        log.infof("Activity executions on virtual threads: %s", enabled ? "on" : "off");
+    }
+
+    /**
+     * Creates an interceptor outside of CDI.
+     *
+     * @param enabled    {@code false} to run the activities on the SDK threads
+     * @param executor   executor starting a virtual thread per task
+     * @param classifier classifier of the non-retryable failures
+     */
+    public VirtualThreadActivityInterceptor(boolean enabled, ExecutorService executor,
+            FailureClassifier classifier) {
+        this.enabled = enabled;
+        this.executor = executor;
+        this.classifier = classifier;
+    }
+
+    @Override
+    public ActivityInboundCallsInterceptor interceptActivity(ActivityInboundCallsInterceptor next) {
+        if (!enabled) {
+            return next;
+        }
+        return new ActivityInboundCallsInterceptorBase(next) {
+
+            private ActivityExecutionContext context;
+
+            @Override
+            public void init(ActivityExecutionContext context) {
+                this.context = context;
+                super.init(context);
+            }
+
+            @Override
+            public ActivityOutput execute(ActivityInput input) {
+                if (context.getInfo().isLocal()) {
+                    return super.execute(input);
+                }
+                ManualActivityCompletionClient completion = context.useLocalManualCompletion();
+                Map<String, String> mdc = MDC.getCopyOfContextMap();
+                try {
+                    executor.execute(() -> {
+                        if (mdc != null) {
+                            MDC.setContextMap(mdc);
+                        }
+                        try {
+                            completion.complete(super.execute(input).getResult());
+                        } catch (ActivityCompletionException e) {
+                            log.warnf("Unable to complete activity %s: %s", context.getInfo().getActivityType(),
+                                    e.getMessage());
+                        } catch (Throwable e) {
+                            completion.fail(classify(e));
+                        } finally {
+                            MDC.clear();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Shutting down, release the slot and let the activity be retried elsewhere
+                    log.warnf("Virtual thread rejected activity %s", context.getInfo().getActivityType());
+                    completion.fail(e);
+                }
+                return new ActivityOutput(null);
+            }
+        };
+    }
+
+    private Throwable classify(Throwable e) {
+        if (e instanceof TemporalFailure) {
+            return e;
+        }
+        return classifier.findNonRetryableType(e)
+                .<Throwable>map(type -> ApplicationFailure.newNonRetryableFailureWithCause(e.getMessage(), type, e))
+                .orElse(e);
+    }
+}
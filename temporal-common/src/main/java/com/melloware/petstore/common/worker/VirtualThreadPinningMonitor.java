@@ -0,0 +1,82 @@
+package com.melloware.petstore.common.worker;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Singleton;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.arc.Unremovable;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Logs the virtual threads pinned to their carrier thread, when activities run
+ * on virtual threads with {@code petstore.temporal.worker.virtual-threads.enabled}.
+ * <p>
+ * A virtual thread blocking while it holds a monitor, such as inside a
+ * {@code synchronized} block of a driver, keeps its carrier thread and defeats
+ * the point of virtual threads. The {@code jdk.VirtualThreadPinned} JFR events
+ * longer than {@code petstore.temporal.worker.virtual-threads.pinned-threshold}
+ * are streamed in process and logged with the top frames of their stack, which
+ * name the monitor holder to fix. The events are also kept in any JFR recording
+ * of the service.
+ */
+@JBossLog
+@Singleton
+@Unremovable
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // Frames of the pinned stack logged
+    private static final int STACK_DEPTH = 8;
+
+    @ConfigProperty(name = "petstore.temporal.worker.virtual-threads.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "petstore.temporal.worker.virtual-threads.pinned-threshold", defaultValue = "20ms")
+    Duration threshold;
+
+    private RecordingStream stream;
+
+    void start(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::logPinned);
+        stream.startAsync();
+        log.infof("Logging virtual threads pinned longer than %s", threshold);
+    }
+
+    void stop(@Observes ShutdownEvent event) {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void logPinned(RecordedEvent event) {
+        String stack = event.getStackTrace() == null ? "no stack trace"
+                : event.getStackTrace().getFrames().stream()
+                        .limit(STACK_DEPTH)
+                        .map(VirtualThreadPinningMonitor::frame)
+                        .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+        log.warnf("Virtual thread %s pinned for %d ms\n%s",
+                event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                event.getDuration().toMillis(), stack);
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":"
+                + frame.getLineNumber();
+    }
+}
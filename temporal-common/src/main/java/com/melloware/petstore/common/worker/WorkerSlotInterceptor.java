@@ -0,0 +1,74 @@
+package com.melloware.petstore.common.worker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import com.uber.m3.tally.Scope;
+
+import io.quarkus.arc.Unremovable;
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptor;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptorBase;
+import io.temporal.common.interceptors.WorkerInterceptorBase;
+
+/**
+ * Worker interceptor publishing the activity slots in use, to size the worker
+ * of each service against its {@link WorkerTuning} limits.
+ * <p>
+ * The in-flight executions of each activity type are reported in the Temporal
+ * metrics scope of the activity as {@code petstore_worker_slots_used}, and the
+ * configured limit of the worker as {@code petstore_worker_slots_max}. Both are
+ * tagged {@code slot_type=activity|local_activity}; the utilization of a worker
+ * is the sum of the used slots over the limit.
+ */
+@Singleton
+@Unremovable
+public class WorkerSlotInterceptor extends WorkerInterceptorBase {
+
+    private final WorkerTuning tuning;
+
+    // In-flight executions per activity type, local activities apart
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    @Inject
+    public WorkerSlotInterceptor(WorkerTuning tuning) {
+        this.tuning = tuning;
+    }
+
+    @Override
+    public ActivityInboundCallsInterceptor interceptActivity(ActivityInboundCallsInterceptor next) {
+        return new ActivityInboundCallsInterceptorBase(next) {
+
+            private ActivityExecutionContext context;
+
+            @Override
+            public void init(ActivityExecutionContext context) {
+                this.context = context;
+                super.init(context);
+            }
+
+            @Override
+            public ActivityOutput execute(ActivityInput input) {
+                boolean local = context.getInfo().isLocal();
+                Scope scope = context.getMetricsScope()
+                        .tagged(Map.of("slot_type", local ? "local_activity" : "activity"));
+                AtomicInteger used = inFlight.computeIfAbsent(
+                        (local ? "local:" : "") + context.getInfo().getActivityType(), type -> new AtomicInteger());
+
+                scope.gauge("petstore_worker_slots_max").update(local
+                        ? tuning.getMaxConcurrentLocalActivityExecutionSize()
+                        : tuning.getMaxConcurrentActivityExecutionSize());
+                scope.gauge("petstore_worker_slots_used").update(used.incrementAndGet());
+                try {
+                    return super.execute(input);
+                } finally {
+                    scope.gauge("petstore_worker_slots_used").update(used.decrementAndGet());
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.melloware.petstore.common.worker;
+
+import java.time.Duration;
+
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Singleton;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.arc.Unremovable;
+import io.quarkus.runtime.StartupEvent;
+
+import lombok.Getter;
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Effective tuning of the Temporal worker of the service.
+ * <p>
+ * The worker options are set per service with the
+ * {@code quarkus.temporal.worker.*} properties of the Temporal extension. They
+ * are read here with the SDK defaults as fallback, logged once at startup so
+ * the values actually used by each pod are visible, and used as the limits of
+ * the {@link WorkerSlotInterceptor} gauges.
+ */
+@JBossLog
+@Singleton
+@Unremovable
+@Getter
+public class WorkerTuning {
+
+    @ConfigProperty(name = "quarkus.temporal.worker.task-queue")
+    String taskQueue;
+
+    @ConfigProperty(name = "quarkus.temporal.worker.max-concurrent-activity-execution-size", defaultValue = "200")
+    int maxConcurrentActivityExecutionSize;
+
+    @ConfigProperty(name = "quarkus.temporal.worker.max-concurrent-local-activity-execution-size",
+            defaultValue = "200")
+    int maxConcurrentLocalActivityExecutionSize;
+
+    @ConfigProperty(name = "quarkus.temporal.worker.max-concurrent-workflow-task-execution-size",
+            defaultValue = "200")
+    int maxConcurrentWorkflowTaskExecutionSize;
+
+    @ConfigProperty(name = "quarkus.temporal.worker.max-concurrent-activity-task-pollers", defaultValue = "5")
+    int maxConcurrentActivityTaskPollers;
+
+    @ConfigProperty(name = "quarkus.temporal.worker.max-concurrent-workflow-task-pollers", defaultValue = "5")
+    int maxConcurrentWorkflowTaskPollers;
+
+    @ConfigProperty(name = "quarkus.temporal.worker.sticky-queue-schedule-to-start-timeout", defaultValue = "5s")
+    Duration stickyQueueScheduleToStartTimeout;
+
+    void logEffectiveValues(@Observes StartupEvent event) {
+        log.infof("Temporal worker %s: activities %d (%d pollers), local activities %d, "
+                + "workflow tasks %d (%d pollers), sticky queue timeout %s",
+                taskQueue,
+                maxConcurrentActivityExecutionSize, maxConcurrentActivityTaskPollers,
+                maxConcurrentLocalActivityExecutionSize,
+                maxConcurrentWorkflowTaskExecutionSize, maxConcurrentWorkflowTaskPollers,
+                stickyQueueScheduleToStartTimeout);
+    }
+}
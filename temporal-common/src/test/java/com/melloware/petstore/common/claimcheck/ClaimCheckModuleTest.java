@@ -0,0 +1,153 @@
+package com.melloware.petstore.common.claimcheck;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.melloware.petstore.common.converter.DataConverterProducer;
+import com.melloware.petstore.common.models.json.CheckInventoryRequest;
+import com.melloware.petstore.common.models.json.Product;
+
+class ClaimCheckModuleTest {
+
+    private static final int THRESHOLD = 3;
+
+    private final ObjectMapper mapper = DataConverterProducer.newJsonObjectMapper();
+    private final InMemoryStore store = new InMemoryStore();
+
+    @BeforeEach
+    void setUp() {
+        ClaimCheck.configure(store, true, THRESHOLD, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClaimCheck.configure(null, false, Integer.MAX_VALUE, 1000);
+    }
+
+    @Test
+    void writesSmallListsAsArrays() throws Exception {
+        String json = mapper.writeValueAsString(request(THRESHOLD));
+
+        assertTrue(json.contains("\"products\":["), json);
+        assertTrue(store.blobs.isEmpty());
+    }
+
+    @Test
+    void roundTripsLargeListsAsReferences() throws Exception {
+        CheckInventoryRequest request = request(THRESHOLD + 1);
+
+        String json = mapper.writeValueAsString(request);
+        assertTrue(json.contains("\"claimCheck\""), json);
+        assertFalse(json.contains("DOG-COLLAR"), json);
+        assertEquals(1, store.blobs.size());
+
+        CheckInventoryRequest read = mapper.readValue(json, CheckInventoryRequest.class);
+        assertInstanceOf(ClaimCheckedProductList.class, read.getProducts());
+        assertEquals(skus(request.getProducts()), skus(read.getProducts()));
+    }
+
+    @Test
+    void forwardsReferencesWithoutStoringAgain() throws Exception {
+        String json = mapper.writeValueAsString(request(THRESHOLD + 1));
+        CheckInventoryRequest read = mapper.readValue(json, CheckInventoryRequest.class);
+
+        assertEquals(json, mapper.writeValueAsString(read));
+        assertEquals(1, store.puts);
+    }
+
+    @Test
+    void resolvesReferencesFromTheStore() throws Exception {
+        CheckInventoryRequest request = request(THRESHOLD + 1);
+        String json = mapper.writeValueAsString(request);
+
+        // Another worker, without the list in its cache
+        ClaimCheck.configure(store, true, THRESHOLD, 10);
+        CheckInventoryRequest read = mapper.readValue(json, CheckInventoryRequest.class);
+
+        assertEquals(skus(request.getProducts()), skus(read.getProducts()));
+    }
+
+    @Test
+    void readsArraysWhileDisabled() throws Exception {
+        String json = mapper.writeValueAsString(request(THRESHOLD));
+        ClaimCheck.configure(store, false, THRESHOLD, 10);
+
+        CheckInventoryRequest read = mapper.readValue(json, CheckInventoryRequest.class);
+
+        assertEquals(THRESHOLD, read.getProducts().size());
+        assertTrue(mapper.writeValueAsString(request(THRESHOLD + 1)).contains("\"products\":["));
+    }
+
+    @Test
+    void readsReferencesWithoutTheStore() throws Exception {
+        CheckInventoryRequest request = request(THRESHOLD + 1);
+        String json = mapper.writeValueAsString(request);
+        ClaimCheck.configure(store, true, THRESHOLD, 10);
+
+        CheckInventoryRequest read = mapper.readValue(json, CheckInventoryRequest.class);
+        assertEquals(THRESHOLD + 1, read.getProducts().size());
+        assertEquals(0, store.gets);
+
+        assertEquals(skus(request.getProducts()), skus(read.getProducts()));
+        assertEquals(1, store.gets);
+    }
+
+    @Test
+    void failsOnMissingBlobsWhenRead() throws Exception {
+        String json = mapper.writeValueAsString(request(THRESHOLD + 1));
+        store.blobs.clear();
+        ClaimCheck.configure(store, true, THRESHOLD, 10);
+
+        CheckInventoryRequest read = mapper.readValue(json, CheckInventoryRequest.class);
+
+        assertThrows(ClaimCheckException.class, () -> read.getProducts().get(0));
+    }
+
+    private static CheckInventoryRequest request(int lineItems) {
+        return CheckInventoryRequest.builder()
+                .products(IntStream.range(0, lineItems)
+                        .mapToObj(i -> Product.builder().sku("DOG-COLLAR-" + i).quantity(1).price(19.99).build())
+                        .toList())
+                .build();
+    }
+
+    private static List<String> skus(List<Product> products) {
+        return products.stream().map(Product::getSku).toList();
+    }
+
+    private static class InMemoryStore implements ClaimCheckStore {
+
+        private final Map<String, byte[]> blobs = new ConcurrentHashMap<>();
+        private int puts;
+        private int gets;
+
+        @Override
+        public void put(String key, byte[] content) {
+            puts++;
+            blobs.putIfAbsent(key, content);
+        }
+
+        @Override
+        public byte[] get(String key) {
+            gets++;
+            byte[] content = blobs.get(key);
+            if (content == null) {
+                throw new ClaimCheckException("No claim check " + key);
+            }
+            return content;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.melloware.petstore.common.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final Duration THRESHOLD = Duration.ofMillis(100);
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    @Test
+    void acquiresUpToTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 0.5, THRESHOLD);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+
+        limit.onIgnore();
+        assertEquals(1, limit.getInFlight());
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void growsByOnePermitPerWindowOfFastCalls() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 10, 0.5, THRESHOLD);
+
+        // Each call completes with the whole limit in use and adds 1 / limit
+        for (int i = 0; i < 5; i++) {
+            fillUp(limit);
+            limit.onSuccess(FAST);
+            releaseAll(limit);
+        }
+
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 20, 0.5, THRESHOLD);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.onSuccess(FAST);
+        }
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void shrinksOnSlowCalls() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 20, 0.5, THRESHOLD);
+
+        assertTrue(limit.tryAcquire());
+        limit.onSuccess(SLOW);
+
+        assertEquals(5, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void shrinksOnDroppedCalls() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 20, 0.5, THRESHOLD);
+
+        assertTrue(limit.tryAcquire());
+        limit.onDropped();
+
+        assertEquals(5, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void backoffKeepsThePermits() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 20, 0.5, THRESHOLD);
+        assertTrue(limit.tryAcquire());
+
+        limit.backoff();
+
+        assertEquals(5, limit.getLimit());
+        assertEquals(1, limit.getInFlight());
+    }
+
+    @Test
+    void staysWithinBounds() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 2, 5, 0.5, THRESHOLD);
+        for (int i = 0; i < 10; i++) {
+            limit.backoff();
+        }
+        assertEquals(2, limit.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            fillUp(limit);
+            limit.onSuccess(FAST);
+            releaseAll(limit);
+        }
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    void clampsTheInitialLimit() {
+        assertEquals(2, new AdaptiveConcurrencyLimit(0, 2, 5, 0.5, THRESHOLD).getLimit());
+        assertEquals(5, new AdaptiveConcurrencyLimit(50, 2, 5, 0.5, THRESHOLD).getLimit());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(1, 0, 5, 0.5, THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(1, 5, 2, 0.5, THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(1, 1, 5, 0, THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(1, 1, 5, 1, THRESHOLD));
+    }
+
+    private static void fillUp(AdaptiveConcurrencyLimit limit) {
+        while (limit.tryAcquire()) {
+            // Acquire every permit
+        }
+    }
+
+    private static void releaseAll(AdaptiveConcurrencyLimit limit) {
+        while (limit.getInFlight() > 0) {
+            limit.onIgnore();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.melloware.petstore.common.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.protobuf.ByteString;
+
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.payload.codec.PayloadCodecException;
+
+class DeflatePayloadCodecTest {
+
+    private static final int THRESHOLD = 256;
+
+    @Test
+    void roundTripsLargePayloads() {
+        DeflatePayloadCodec codec = new DeflatePayloadCodec(true, THRESHOLD);
+        Payload payload = json("{\"sku\":\"DOG-COLLAR-001\",\"quantity\":5,\"price\":19.99}".repeat(100));
+
+        Payload encoded = codec.encode(List.of(payload)).get(0);
+
+        assertEquals(DeflatePayloadCodec.ENCODING_TYPE, encoding(encoded));
+        assertTrue(encoded.getSerializedSize() < payload.getSerializedSize());
+        assertEquals(payload, codec.decode(List.of(encoded)).get(0));
+    }
+
+    @Test
+    void passesSmallPayloadsThrough() {
+        DeflatePayloadCodec codec = new DeflatePayloadCodec(true, THRESHOLD);
+        Payload payload = json("{\"sku\":\"DOG-COLLAR-001\"}");
+
+        assertSame(payload, codec.encode(List.of(payload)).get(0));
+        assertSame(payload, codec.decode(List.of(payload)).get(0));
+    }
+
+    @Test
+    void decodesWhileCompressionIsOff() {
+        Payload payload = json("x".repeat(4 * THRESHOLD));
+        Payload encoded = new DeflatePayloadCodec(true, THRESHOLD).encode(List.of(payload)).get(0);
+        DeflatePayloadCodec codec = new DeflatePayloadCodec(false, THRESHOLD);
+
+        assertSame(payload, codec.encode(List.of(payload)).get(0));
+        assertEquals(payload, codec.decode(List.of(encoded)).get(0));
+    }
+
+    @Test
+    void rejectsPayloadsInflatingBeyondTheMaximum() {
+        Payload payload = json("x".repeat(64 * 1024));
+        Payload encoded = new DeflatePayloadCodec(true, THRESHOLD).encode(List.of(payload)).get(0);
+        DeflatePayloadCodec codec = new DeflatePayloadCodec(true, THRESHOLD, 16 * 1024);
+
+        assertThrows(PayloadCodecException.class, () -> codec.decode(List.of(encoded)));
+    }
+
+    @Test
+    void rejectsTruncatedPayloads() {
+        DeflatePayloadCodec codec = new DeflatePayloadCodec(true, THRESHOLD);
+        Payload encoded = codec.encode(List.of(json("x".repeat(4 * THRESHOLD)))).get(0);
+        Payload truncated = encoded.toBuilder()
+                .setData(encoded.getData().substring(0, encoded.getData().size() / 2))
+                .build();
+
+        assertThrows(PayloadCodecException.class, () -> codec.decode(List.of(truncated)));
+    }
+
+    private static Payload json(String data) {
+        return Payload.newBuilder()
+                .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ByteString.copyFromUtf8("json/plain"))
+                .setData(ByteString.copyFrom(data, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private static String encoding(Payload payload) {
+        return payload.getMetadataOrThrow(EncodingKeys.METADATA_ENCODING_KEY).toStringUtf8();
+    }
+}
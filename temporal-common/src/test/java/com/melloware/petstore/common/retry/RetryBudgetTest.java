@@ -0,0 +1,97 @@
+package com.melloware.petstore.common.retry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+    @Test
+    void startsFullAndRunsOut() {
+        RetryBudget budget = new RetryBudget(0.2, 0, 3);
+
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+    }
+
+    @Test
+    void firstAttemptsEarnRetries() {
+        RetryBudget budget = new RetryBudget(0.25, 0, 1);
+        assertTrue(budget.tryAcquireRetry());
+
+        for (int i = 0; i < 3; i++) {
+            budget.onFirstAttempt();
+            assertFalse(budget.tryAcquireRetry());
+        }
+        budget.onFirstAttempt();
+        assertTrue(budget.tryAcquireRetry());
+    }
+
+    @Test
+    void balanceIsCapped() {
+        RetryBudget budget = new RetryBudget(1, 0, 2);
+        for (int i = 0; i < 10; i++) {
+            budget.onFirstAttempt();
+        }
+
+        assertEquals(2, budget.getBalance());
+    }
+
+    @Test
+    void timeUntilRetryIsZeroWhileRetriesAreLeft() {
+        RetryBudget budget = new RetryBudget(0.2, 1, 1);
+
+        assertEquals(Duration.ZERO, budget.timeUntilRetry());
+    }
+
+    @Test
+    void timeUntilRetryFollowsTheRefillRate() {
+        RetryBudget budget = new RetryBudget(0.2, 0.1, 1);
+        assertTrue(budget.tryAcquireRetry());
+
+        Duration wait = budget.timeUntilRetry();
+        assertTrue(wait.compareTo(Duration.ofSeconds(9)) > 0, wait::toString);
+        assertTrue(wait.compareTo(Duration.ofSeconds(10)) <= 0, wait::toString);
+    }
+
+    @Test
+    void timeUntilRetryIsUnknownWithoutRefill() {
+        RetryBudget budget = new RetryBudget(0.2, 0, 1);
+        assertTrue(budget.tryAcquireRetry());
+
+        assertNull(budget.timeUntilRetry());
+    }
+
+    @Test
+    void acquireRetryWaitsForTheRefill() throws InterruptedException {
+        RetryBudget budget = new RetryBudget(0.2, 20, 1);
+        assertTrue(budget.tryAcquireRetry());
+
+        long start = System.nanoTime();
+        assertTrue(budget.acquireRetry(Duration.ofSeconds(5)));
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(40).toNanos());
+    }
+
+    @Test
+    void acquireRetryGivesUpAfterTheWait() throws InterruptedException {
+        RetryBudget budget = new RetryBudget(0.2, 0, 1);
+        assertTrue(budget.tryAcquireRetry());
+
+        assertFalse(budget.acquireRetry(Duration.ofMillis(50)));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(-0.1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(0.2, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(0.2, 0, 0.5));
+    }
+}
@@ -0,0 +1,80 @@
+package com.melloware.petstore.common.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class IdGeneratorTest {
+
+    private static final String ORDER_NUMBER_PATTERN = "PET-ORD-[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}";
+
+    @Test
+    void timeOrderedUuidIsVersion7() {
+        long before = System.currentTimeMillis();
+        UUID uuid = IdGenerator.newTimeOrderedUuid();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after, () -> uuid + " created at " + timestamp);
+    }
+
+    @Test
+    void timeOrderedUuidsSortByCreationTime() throws InterruptedException {
+        UUID first = IdGenerator.newTimeOrderedUuid();
+        Thread.sleep(2);
+        UUID second = IdGenerator.newTimeOrderedUuid();
+
+        assertTrue(first.toString().compareTo(second.toString()) < 0, () -> first + " after " + second);
+    }
+
+    @Test
+    void transactionIdIsRandom() {
+        assertEquals(4, IdGenerator.newTransactionId().version());
+        assertEquals(4, IdGenerator.newAuthorizationCode().version());
+        assertEquals(4, UUID.fromString(IdGenerator.newRequestId()).version());
+        assertEquals(2, IdGenerator.newTransactionId().variant());
+    }
+
+    @Test
+    void orderNumberHasAFixedFormat() {
+        long before = System.currentTimeMillis();
+        String orderNumber = IdGenerator.newOrderNumber();
+        long after = System.currentTimeMillis();
+
+        assertTrue(orderNumber.matches(ORDER_NUMBER_PATTERN), orderNumber);
+        long timestamp = Long.parseLong(orderNumber.substring(8, 16) + orderNumber.substring(17, 21), 16);
+        assertTrue(timestamp >= before && timestamp <= after, () -> orderNumber + " created at " + timestamp);
+    }
+
+    @Test
+    void orderNumbersSortByCreationTime() throws InterruptedException {
+        List<String> orderNumbers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            orderNumbers.add(IdGenerator.newOrderNumber());
+            Thread.sleep(2);
+        }
+
+        assertEquals(orderNumbers, orderNumbers.stream().sorted().toList());
+    }
+
+    @Test
+    void idsAreUnique() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(IdGenerator.newOrderNumber());
+            ids.add(IdGenerator.newTrackingNumber());
+            ids.add(IdGenerator.newRequestId());
+        }
+
+        assertEquals(3_000, ids.size());
+    }
+}
@@ -38,4 +38,14 @@ public class WarehouseActivitiesImpl implements WarehouseActivities {
 
     }
 
+    /**
+     * Releases inventory
+     * 
+     * @param request {@link CheckInventoryRequest} of the inventory check
+     */
+    @Override
+    public void releaseInventory(CheckInventoryRequest request) {
+        service.releaseInventory(request);
+    }
+
 }
\ No newline at end of file
@@ -1,18 +1,32 @@
 package com.melloware.petstore.warehouse.temporal;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.melloware.petstore.common.models.exceptions.OutOfStockException;
 import com.melloware.petstore.common.models.json.CheckInventoryRequest;
+import com.melloware.petstore.common.orders.OrderProducts;
 
 import com.melloware.petstore.common.models.json.Product;
 import lombok.extern.jbosslog.JBossLog;
 
 /**
  * Warehouse operations
+ * <p>
+ * Activities are retried, so the reservation and the release of an order are
+ * recorded by transaction id: a retried check does not reserve the inventory
+ * twice, a retried release does not put it back twice, and a check arriving
+ * after the release of its order reserves nothing. The records expire after
+ * {@code petstore.warehouse.reservations.expire-after-write}.
  */
 @ApplicationScoped
 @JBossLog
@@ -21,28 +35,102 @@ public class WarehouseService {
     // Counter for demo ( default to 20 items in stock)
     private AtomicInteger stock = new AtomicInteger(20);
 
+    // Reservation applied to the inventory, by transaction id
+    private final Cache<UUID, Reservation> reservations;
+
+    private final OrderProducts orderProducts;
+
+    @Inject
+    public WarehouseService(OrderProducts orderProducts,
+            @ConfigProperty(name = "petstore.warehouse.reservations.maximum-size", defaultValue = "100000")
+            long maximumSize,
+            @ConfigProperty(name = "petstore.warehouse.reservations.expire-after-write", defaultValue = "7d")
+            Duration expireAfterWrite) {
+        this.orderProducts = orderProducts;
+        this.reservations = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
     /**
      * Check inventory
-     * 
+     * <p>
+     * The products of a slim request are resolved from the order.
+     *
      * @param request {@link CheckInventoryRequest}
      * @throws {@link OutOfStockException} if anything is out of stock
      */
     public void checkInventory(CheckInventoryRequest request) {
-        List<Product> products = request.getProducts();
+        List<Product> products = orderProducts.of(request.getTransactionId(), request.getProducts());
         log.infof("Checking inventory for %d products", products.size());
+        int quantity = products.stream().mapToInt(Product::getQuantity).sum();
+        UUID transactionId = request.getTransactionId();
+        if (transactionId == null) {
+            reserve(quantity);
+            log.infof("All %d products are in stock", products.size());
+            return;
+        }
 
-        /**
-         * Decrement the count and if we are out of stock raise an error.
-         */
-        for (Product product : products) {
-            if (stock.get() < product.getQuantity()) {
-                throw new OutOfStockException("Items are out of stock");
+        reservations.asMap().compute(transactionId, (id, reservation) -> {
+            if (reservation == Reservation.RESERVED) {
+                log.infof("Inventory of TX id %s already reserved", id);
+            } else if (reservation == Reservation.RELEASED) {
+                log.warnf("Inventory of TX id %s already released, not reserving it again", id);
+            } else {
+                reserve(quantity);
+                log.infof("All %d products are in stock", products.size());
+                reservation = Reservation.RESERVED;
             }
-            stock.set(stock.get() - product.getQuantity());
+            return reservation;
+        });
+    }
+
+    /**
+     * Release inventory reserved by {@link #checkInventory(CheckInventoryRequest)}
+     *
+     * @param request {@link CheckInventoryRequest}
+     */
+    public void releaseInventory(CheckInventoryRequest request) {
+        List<Product> products = orderProducts.of(request.getTransactionId(), request.getProducts());
+        int quantity = products.stream().mapToInt(Product::getQuantity).sum();
+        UUID transactionId = request.getTransactionId();
+        if (transactionId == null) {
+            stock.addAndGet(quantity);
+            log.infof("Released %d items of %d products back to inventory", quantity, products.size());
+            return;
         }
 
-        log.infof("All %d products are in stock", products.size());
+        reservations.asMap().compute(transactionId, (id, reservation) -> {
+            if (reservation == Reservation.RESERVED) {
+                stock.addAndGet(quantity);
+                log.infof("Released %d items of %d products back to inventory", quantity, products.size());
+            } else if (reservation == Reservation.RELEASED) {
+                log.infof("Inventory of TX id %s already released", id);
+            } else {
+                log.infof("Nothing reserved for TX id %s, nothing to release", id);
+            }
+            return Reservation.RELEASED;
+        });
+    }
+
+    /**
+     * Decrement the count for all the products at once, or for none of them
+     * if we are out of stock, so a failed check leaves nothing to release.
+     */
+    private void reserve(int quantity) {
+        int available;
+        do {
+            available = stock.get();
+            if (available < quantity) {
+                throw new OutOfStockException("Items are out of stock");
+            }
+        } while (!stock.compareAndSet(available, available - quantity));
+    }
 
+    private enum Reservation {
+        RESERVED,
+        RELEASED
     }
 
-}
\ No newline at end of file
+}